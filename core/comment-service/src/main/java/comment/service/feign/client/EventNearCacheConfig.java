@@ -0,0 +1,18 @@
+package comment.service.feign.client;
+
+import interaction.api.feign.cache.EventNearCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class EventNearCacheConfig {
+    @Bean
+    public EventNearCache eventNearCache(EventClient eventClient,
+                                         @Value("${event-client.near-cache.ttl:PT5S}") Duration ttl,
+                                         @Value("${event-client.near-cache.maximum-size:10000}") long maximumSize) {
+        return new EventNearCache(eventClient, ttl, maximumSize);
+    }
+}
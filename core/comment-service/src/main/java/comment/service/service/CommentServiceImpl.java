@@ -1,6 +1,5 @@
 package comment.service.service;
 
-import comment.service.feign.client.EventClient;
 import comment.service.feign.client.UserClient;
 import comment.service.mapper.CommentMapper;
 import comment.service.model.Comment;
@@ -12,6 +11,7 @@ import interaction.api.dto.user.UserShortDto;
 import interaction.api.enums.EventState;
 import interaction.api.exception.ConflictException;
 import interaction.api.exception.NotFoundException;
+import interaction.api.feign.cache.EventNearCache;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -35,7 +35,7 @@ import java.util.Objects;
 public class CommentServiceImpl implements CommentService {
     CommentRepository commentRepository;
     UserClient userClient;
-    EventClient eventClient;
+    EventNearCache eventClient;
     CommentMapper commentMapper;
 
     @Override
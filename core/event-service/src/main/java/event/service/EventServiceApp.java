@@ -6,12 +6,14 @@ import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ConfigurationPropertiesScan
 @ComponentScan(basePackages = {"event.service", "stats.client", "interaction.api", "request.service", "user.service"})
 @EnableDiscoveryClient
 @EnableFeignClients(basePackages = {"event.service", "stats.client", "interaction.api", "request.service", "user.service"})
+@EnableScheduling
 public class EventServiceApp {
     public static void main(String[] args) {
         SpringApplication.run(EventServiceApp.class, args);
@@ -0,0 +1,152 @@
+package event.service.category.cache;
+
+import event.service.category.mapper.CategoryMapper;
+import event.service.category.repository.CategoryRepository;
+import interaction.api.dto.category.CategoryDto;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// -- Неизменяемый снимок всех категорий для публичного чтения: GET /categories не обращается к БД.
+// -- Изменения администратора применяются после коммита копированием снимка (copy-on-write), читатели
+// -- продолжают работать со своей версией. Если каталог больше category.snapshot.maximum-size, снимок
+// -- не строится и чтение идёт в БД с пагинацией на её стороне.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CategorySnapshot {
+    CategoryRepository categoryRepository;
+    CategoryMapper mapper;
+
+    @NonFinal
+    @Value("${category.snapshot.maximum-size:10000}")
+    long maximumSize;
+
+    @NonFinal
+    volatile State state;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        current();
+    }
+
+    // -- Пустой результат означает, что снимка нет и страницу нужно читать из БД
+    public Optional<List<CategoryDto>> page(int from, int size) {
+        State snapshot = current();
+        if (!snapshot.complete) {
+            return Optional.empty();
+        }
+        List<CategoryDto> categories = snapshot.ordered;
+        int start = Math.min(from, categories.size());
+        int end = (int) Math.min((long) start + size, categories.size());
+        return Optional.of(categories.subList(start, end));
+    }
+
+    public boolean isComplete() {
+        return current().complete;
+    }
+
+    public Optional<CategoryDto> find(Long catId) {
+        return Optional.ofNullable(current().byId.get(catId));
+    }
+
+    public void putAfterCommit(CategoryDto category) {
+        CategoryDto copy = new CategoryDto(category.getId(), category.getName());
+        afterCommit(() -> apply(copy.getId(), copy));
+    }
+
+    public void removeAfterCommit(Long catId) {
+        afterCommit(() -> apply(catId, null));
+    }
+
+    private State current() {
+        State snapshot = state;
+        return (snapshot != null) ? snapshot : load();
+    }
+
+    // -- Загрузка и применение изменений сериализованы: изменение, закоммиченное во время загрузки,
+    // -- дождётся её окончания и ляжет поверх прочитанных данных
+    private synchronized State load() {
+        if (state != null) {
+            return state;
+        }
+        long count = categoryRepository.count();
+        if (count > maximumSize) {
+            log.info("Категорий {} больше предела снимка {}, чтение идёт из БД", count, maximumSize);
+            state = State.INCOMPLETE;
+            return state;
+        }
+        TreeMap<Long, CategoryDto> categories = new TreeMap<>();
+        categoryRepository.findAll(Sort.by("id"))
+                .forEach(category -> categories.put(category.getId(), mapper.toCategoryDto(category)));
+        state = State.of(0, categories);
+        log.debug("Снимок категорий загружен: {} записей", categories.size());
+        return state;
+    }
+
+    private synchronized void apply(Long catId, CategoryDto category) {
+        State snapshot = state;
+        if (snapshot == null) {
+            return;
+        }
+        if (!snapshot.complete) {
+            // -- После удаления каталог мог уменьшиться: снимок перечитается при следующем чтении
+            if (category == null) {
+                state = null;
+            }
+            return;
+        }
+
+        TreeMap<Long, CategoryDto> categories = new TreeMap<>(snapshot.byId);
+        if (category == null) {
+            categories.remove(catId);
+        } else {
+            categories.put(catId, category);
+        }
+        state = (categories.size() > maximumSize) ? State.INCOMPLETE : State.of(snapshot.version + 1, categories);
+        log.debug("Снимок категорий обновлён до версии {}", state.version);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class State {
+        static final State INCOMPLETE = new State(-1, false, List.of(), Map.of());
+
+        long version;
+        boolean complete;
+        List<CategoryDto> ordered;
+        Map<Long, CategoryDto> byId;
+
+        static State of(long version, TreeMap<Long, CategoryDto> categories) {
+            return new State(version, true, List.copyOf(categories.values()), Map.copyOf(categories));
+        }
+    }
+}
@@ -2,7 +2,15 @@ package event.service.category.repository;
 
 import event.service.category.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByName(String name);
+
+    // -- Смещение и размер страницы применяются в БД, а не к полной выборке в памяти
+    @Query(value = "SELECT * FROM categories ORDER BY id OFFSET :from LIMIT :size", nativeQuery = true)
+    List<Category> findPage(@Param("from") int from, @Param("size") int size);
 }
\ No newline at end of file
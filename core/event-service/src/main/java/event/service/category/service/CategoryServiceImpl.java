@@ -6,10 +6,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import interaction.api.dto.category.CategoryDto;
 import interaction.api.dto.category.NewCategoryDto;
+import event.service.category.cache.CategorySnapshot;
 import event.service.category.mapper.CategoryMapper;
 import event.service.category.model.Category;
 import event.service.category.repository.CategoryRepository;
-import event.service.events.model.EventModel;
+import event.service.compilation.cache.CompilationViewCache;
+import event.service.events.cache.EventSnapshotCache;
 import event.service.events.services.PublicService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,20 +27,25 @@ public class CategoryServiceImpl implements CategoryService {
     CategoryRepository categoryRepository;
     PublicService eventService;
     CategoryMapper mapper;
+    EventSnapshotCache eventSnapshotCache;
+    CompilationViewCache compilationViewCache;
+    CategorySnapshot categorySnapshot;
 
     @Override
     @Transactional
     public CategoryDto createCategory(NewCategoryDto newCategoryDto) {
         validateNameExist(newCategoryDto.getName());
-        return mapper.toCategoryDto(categoryRepository.save(mapper.toCategory(newCategoryDto)));
+        CategoryDto created = mapper.toCategoryDto(categoryRepository.save(mapper.toCategory(newCategoryDto)));
+        categorySnapshot.putAfterCommit(created);
+        return created;
     }
 
     @Override
     @Transactional
     public void deleteCategory(Long catId) {
-        List<EventModel> events = eventService.findAllByCategoryId(catId);
-        if (events.isEmpty()) {
+        if (!eventService.existsByCategoryId(catId)) {
             categoryRepository.deleteById(catId);
+            categorySnapshot.removeAfterCommit(catId);
         } else {
             throw new ConflictException("Категория не может быть удалена пока содержит события");
         }
@@ -53,23 +60,28 @@ public class CategoryServiceImpl implements CategoryService {
             validateNameExist(categoryDto.getName());
         }
         mapper.updateCategoryFromDto(categoryDto, category);
-        return mapper.toCategoryDto(category);
+        eventSnapshotCache.evictAllAfterCommit();
+        compilationViewCache.rebuildAfterCommit();
+        CategoryDto updated = mapper.toCategoryDto(category);
+        categorySnapshot.putAfterCommit(updated);
+        return updated;
     }
 
     @Override
     public List<CategoryDto> getCategories(Integer from, Integer size) {
-        return categoryRepository.findAll().stream()
-                .map(mapper::toCategoryDto)
-                .skip(from)
-                .limit(size)
-                .toList();
+        return categorySnapshot.page(from, size)
+                .orElseGet(() -> categoryRepository.findPage(from, size).stream()
+                        .map(mapper::toCategoryDto)
+                        .toList());
     }
 
     @Override
     public CategoryDto getCategory(Long catId) {
-        return mapper.toCategoryDto(
-                categoryRepository.findById(catId)
-                        .orElseThrow(() -> new NotFoundException("Категория с id " + catId + " не найдена")));
+        Optional<CategoryDto> category = categorySnapshot.isComplete()
+                ? categorySnapshot.find(catId)
+                : categoryRepository.findById(catId).map(mapper::toCategoryDto);
+        return category
+                .orElseThrow(() -> new NotFoundException("Категория с id " + catId + " не найдена"));
     }
 
     @Override
@@ -4,16 +4,26 @@ import com.querydsl.core.types.Predicate;
 import event.service.compilation.model.Compilation;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 
 @Repository
 public interface CompilationRepository extends JpaRepository<Compilation, Long>,
         QuerydslPredicateExecutor<Compilation> {
+    // -- Коллекции events страницы подборок догружаются пачками (hibernate.default_batch_fetch_size),
+    // -- join fetch коллекции здесь не используется: он ломает пагинацию в БД
     @Override
     @NonNull
     Page<Compilation> findAll(@NonNull Predicate predicate, @NonNull Pageable pageable);
+
+    @Override
+    @NonNull
+    @EntityGraph(attributePaths = {"events", "events.category", "events.location"})
+    Optional<Compilation> findById(@NonNull Long id);
 }
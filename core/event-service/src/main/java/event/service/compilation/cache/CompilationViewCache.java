@@ -0,0 +1,153 @@
+package event.service.compilation.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import event.service.compilation.dto.CompilationDto;
+import event.service.compilation.service.CompilationAssembler;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// -- Готовые страницы GET /compilations по ключу (pinned, from, size): главная страница читает их из памяти.
+// -- После изменения подборок или их событий все запрошенные ранее страницы перестраиваются в фоновом потоке,
+// -- до окончания перестройки отдаётся предыдущее представление. Изменения, пришедшие во время перестройки,
+// -- не теряются: флаг сбрасывается до чтения данных, и следующее изменение ставит новую перестройку.
+// -- Страница общая для всех запросов и хранится копией с неизменяемыми списком и множествами событий;
+// -- сами DTO остаются изменяемыми и не должны изменяться вызывающими.
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CompilationViewCache {
+    Cache<ViewKey, List<CompilationDto>> views;
+    CompilationAssembler compilationAssembler;
+    ExecutorService rebuilder = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("compilation-view-rebuild").daemon().factory());
+    AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    AtomicLong generation = new AtomicLong();
+
+    public CompilationViewCache(CompilationAssembler compilationAssembler,
+                                @Value("${compilation.view-cache.maximum-size:256}") long maximumSize) {
+        this.compilationAssembler = compilationAssembler;
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public List<CompilationDto> get(Boolean pinned, int from, int size) {
+        ViewKey key = new ViewKey(pinned, from, size);
+        List<CompilationDto> view = views.getIfPresent(key);
+        if (view != null) {
+            return view;
+        }
+
+        long loadedAt = generation.get();
+        view = views.get(key, this::load);
+        // -- Страница могла быть прочитана до изменения, закоммиченного во время загрузки
+        if (generation.get() != loadedAt) {
+            requestRebuild();
+        }
+        return view;
+    }
+
+    // -- Внутри транзакции перестройка откладывается до коммита, иначе фон прочитает ещё старые данные
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            requestRebuild();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestRebuild();
+            }
+        });
+    }
+
+    // -- Число подтверждённых заявок и рейтинг меняются без уведомления кэша, поэтому страницы
+    // -- дополнительно перестраиваются по расписанию
+    @Scheduled(initialDelayString = "${compilation.view-cache.refresh-interval:PT1M}",
+            fixedDelayString = "${compilation.view-cache.refresh-interval:PT1M}")
+    public void refresh() {
+        if (views.estimatedSize() > 0) {
+            requestRebuild();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void requestRebuild() {
+        generation.incrementAndGet();
+        // -- Пока перестройка стоит в очереди, повторные изменения в неё же и попадут
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        rebuildScheduled.set(false);
+        long started = System.currentTimeMillis();
+        int rebuilt = 0;
+        for (ViewKey key : List.copyOf(views.asMap().keySet())) {
+            try {
+                views.put(key, load(key));
+                rebuilt++;
+            } catch (RuntimeException e) {
+                // -- Старое представление остаётся в кэше до следующей перестройки
+                log.warn("Не удалось перестроить страницу подборок {}: {}", key, e.getMessage());
+            }
+        }
+        log.debug("Перестроено {} страниц подборок за {} мс", rebuilt, System.currentTimeMillis() - started);
+    }
+
+    private List<CompilationDto> load(ViewKey key) {
+        return compilationAssembler.loadPage(key.pinned, key.from, key.size).stream()
+                .map(CompilationViewCache::readOnlyCopy)
+                .toList();
+    }
+
+    // -- Подборка копируется с неизменяемым множеством событий: сборщик после кэширования его уже не трогает,
+    // -- а вызывающий получит исключение при попытке изменить множество
+    private static CompilationDto readOnlyCopy(CompilationDto compilation) {
+        return CompilationDto.builder()
+                .id(compilation.getId())
+                .pinned(compilation.getPinned())
+                .title(compilation.getTitle())
+                .events(compilation.getEvents() == null
+                        ? null
+                        : Collections.unmodifiableSet(new LinkedHashSet<>(compilation.getEvents())))
+                .build();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    static final class ViewKey {
+        Boolean pinned;
+        int from;
+        int size;
+
+        @Override
+        public String toString() {
+            return "pinned=" + pinned + ", from=" + from + ", size=" + size;
+        }
+    }
+}
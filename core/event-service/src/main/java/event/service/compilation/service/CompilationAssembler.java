@@ -0,0 +1,69 @@
+package event.service.compilation.service;
+
+import com.querydsl.core.types.Predicate;
+import event.service.compilation.CompilationMapper;
+import event.service.compilation.CompilationRepository;
+import event.service.compilation.dto.CompilationDto;
+import event.service.compilation.model.Compilation;
+import event.service.compilation.model.QCompilation;
+import event.service.events.enrichment.EventEnricher;
+import interaction.api.dto.event.EventShortDto;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+// -- Сборка CompilationDto с рейтингами событий. Вынесена из сервиса, чтобы ей пользовался и кэш представлений,
+// -- который перестраивает страницы подборок в фоне
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CompilationAssembler {
+    CompilationRepository compilationRepository;
+    CompilationMapper compilationMapper;
+    EventEnricher eventEnricher;
+
+    @Transactional(readOnly = true)
+    public List<CompilationDto> loadPage(Boolean pinned, int from, int size) {
+        Predicate predicate = (pinned != null) ? QCompilation.compilation.pinned.eq(pinned) : null;
+        Pageable pageable = PageRequest.of(from / size, size);
+        Page<Compilation> page = (predicate != null)
+                ? compilationRepository.findAll(predicate, pageable)
+                : compilationRepository.findAll(pageable);
+        return toDtos(page.getContent());
+    }
+
+    public CompilationDto toDto(Compilation compilation) {
+        return toDtos(List.of(compilation)).get(0);
+    }
+
+    // -- Рейтинги всех событий выдачи запрашиваются у analyzer вместе, а не по одному
+    public List<CompilationDto> toDtos(List<Compilation> compilations) {
+        List<CompilationDto> dtos = compilationMapper.toDtoList(compilations);
+        List<Long> eventIds = dtos.stream()
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .map(EventShortDto::getId)
+                .distinct()
+                .toList();
+        if (eventIds.isEmpty()) {
+            return dtos;
+        }
+
+        Map<Long, Double> ratings = eventEnricher.ratings(eventIds);
+
+        // -- rating входит в hashCode EventShortDto, поэтому множество пересобирается после заполнения
+        dtos.forEach(compilation -> {
+            compilation.getEvents().forEach(event -> event.setRating(ratings.getOrDefault(event.getId(), 0.0)));
+            compilation.setEvents(new HashSet<>(compilation.getEvents()));
+        });
+        return dtos;
+    }
+}
@@ -1,28 +1,25 @@
 package event.service.compilation.service;
 
-import com.querydsl.core.types.Predicate;
 import interaction.api.exception.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import event.service.compilation.CompilationMapper;
 import event.service.compilation.CompilationRepository;
+import event.service.compilation.cache.CompilationViewCache;
 import event.service.compilation.dto.NewCompilationDto;
 import event.service.compilation.dto.CompilationDto;
 import event.service.compilation.dto.CompilationUpdateDto;
 import event.service.compilation.dto.CompilationsRequest;
 import event.service.compilation.model.Compilation;
-import event.service.compilation.model.QCompilation;
 import event.service.compilation.pagination.PaginationOffset;
 import event.service.events.model.EventModel;
 import event.service.events.services.impls.PrivateServiceImpl;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -34,12 +31,13 @@ public class CompilationServiceImpl implements CompilationService {
     private final CompilationRepository compilationRepository;
     private final CompilationMapper compilationMapper;
     private final PrivateServiceImpl eventService;
+    private final CompilationAssembler compilationAssembler;
+    private final CompilationViewCache compilationViewCache;
 
     @Transactional
     @Override
     public CompilationDto addCompilation(NewCompilationDto newCompilationDto) {
-        CompilationMapper.MapperContext context = new CompilationMapper.MapperContext(eventService);
-        Compilation compilation = compilationMapper.toEntity(newCompilationDto, context);
+        Compilation compilation = compilationMapper.toEntity(newCompilationDto);
 
         if (newCompilationDto.getPinned() == null) {
             compilation.setPinned(false);
@@ -48,14 +46,14 @@ public class CompilationServiceImpl implements CompilationService {
         }
 
         if (newCompilationDto.getEvents() != null && !newCompilationDto.getEvents().isEmpty()) {
-            Set<EventModel> events = new HashSet<>(eventService.findAllById(new ArrayList<>(newCompilationDto.getEvents())));
-            compilation.setEvents(events);
+            compilation.setEvents(findEvents(newCompilationDto.getEvents()));
         } else {
             compilation.setEvents(new HashSet<>());
         }
         Compilation savedCompilation = compilationRepository.save(compilation);
+        compilationViewCache.rebuildAfterCommit();
         log.info("Создаем подборку");
-        return compilationMapper.toDto(savedCompilation);
+        return compilationAssembler.toDto(savedCompilation);
     }
 
     @Transactional
@@ -66,6 +64,7 @@ public class CompilationServiceImpl implements CompilationService {
         }
         log.info("Удаляем подборку id={}", compId);
         compilationRepository.deleteById(compId);
+        compilationViewCache.rebuildAfterCommit();
     }
 
     @Transactional
@@ -80,11 +79,11 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setPinned(updateDto.getPinned());
         }
         if (updateDto.getEvents() != null) {
-            Set<EventModel> events = new HashSet<>(eventService.findAllById(new ArrayList<>(updateDto.getEvents())));
-            compilation.setEvents(events);
+            compilation.setEvents(findEvents(updateDto.getEvents()));
         }
+        compilationViewCache.rebuildAfterCommit();
         log.info("Обновляем подборку id={}", compId);
-        return compilationMapper.toDto(compilation);
+        return compilationAssembler.toDto(compilation);
     }
 
     @Transactional(readOnly = true)
@@ -92,23 +91,25 @@ public class CompilationServiceImpl implements CompilationService {
     public CompilationDto getCompilationById(Long compId) {
         Compilation compilation = compilationRepository.findById(compId)
                 .orElseThrow(() -> new NotFoundException("Событие с id " + compId + " не найдено"));
-        return compilationMapper.toDto(compilation);
+        return compilationAssembler.toDto(compilation);
     }
 
-    @Transactional(readOnly = true)
     @Override
     public List<CompilationDto> getCompilations(CompilationsRequest request, PaginationOffset pagination) {
-        QCompilation qCompilation = QCompilation.compilation;
-        Predicate predicate = null;
-        if (request.getPinned() != null) {
-            predicate = qCompilation.pinned.eq(request.getPinned());
-        }
         int from = (pagination.getFrom() != null) ? pagination.getFrom() : 0;
         int size = (pagination.getSize() != null) ? pagination.getSize() : 10;
-        Pageable pageable = PageRequest.of(from / size, size);
-        Page<Compilation> page = (predicate != null)
-                ? compilationRepository.findAll(predicate, pageable)
-                : compilationRepository.findAll(pageable);
-        return compilationMapper.toDtoList(page.getContent());
+        return compilationViewCache.get(request.getPinned(), from, size);
+    }
+
+    // -- Внешнего ключа compilation_event -> event нет (event секционирована), поэтому существование
+    // -- событий проверяется здесь
+    private Set<EventModel> findEvents(Collection<Long> eventIds) {
+        Set<EventModel> events = new HashSet<>(eventService.findAllById(new ArrayList<>(eventIds)));
+        Set<Long> missing = new HashSet<>(eventIds);
+        events.forEach(event -> missing.remove(event.getId()));
+        if (!missing.isEmpty()) {
+            throw new NotFoundException("События с id " + missing + " не найдены");
+        }
+        return events;
     }
 }
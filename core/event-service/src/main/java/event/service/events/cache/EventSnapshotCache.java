@@ -0,0 +1,114 @@
+package event.service.events.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import interaction.api.dto.event.EventFullDto;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+// -- Готовые EventFullDto для GET /admin/events/{id}: этим вызовом пользуются request-service и comment-service.
+// -- Снимок сбрасывается после коммита любой транзакции, меняющей событие. Версии (по полосам id) защищают от
+// -- гонки, когда чтение старых данных завершается уже после сброса и кладёт в кэш устаревший снимок.
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventSnapshotCache {
+    static final int STRIPES = 1024;
+
+    Cache<Long, EventFullDto> snapshots;
+    AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    public EventSnapshotCache(@Value("${event.snapshot-cache.ttl:PT1M}") Duration ttl,
+                              @Value("${event.snapshot-cache.maximum-size:10000}") long maximumSize) {
+        this.snapshots = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public EventFullDto get(Long eventId, Function<Long, EventFullDto> loader) {
+        EventFullDto cached = snapshots.getIfPresent(eventId);
+        if (cached != null) {
+            return cached;
+        }
+
+        int stripe = stripe(eventId);
+        long version = versions.get(stripe);
+        EventFullDto loaded = loader.apply(eventId);
+
+        snapshots.put(eventId, loaded);
+        // -- Сброс успел произойти во время загрузки: снимок мог быть прочитан до изменения
+        if (versions.get(stripe) != version) {
+            snapshots.invalidate(eventId);
+        }
+        return loaded;
+    }
+
+    // -- Внутри транзакции сброс откладывается до коммита, иначе параллельное чтение вернёт в кэш старые данные
+    public void evictAfterCommit(Long eventId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(eventId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(eventId);
+            }
+        });
+    }
+
+    public void evictAfterCommit(Collection<Long> eventIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventIds.forEach(this::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventIds.forEach(EventSnapshotCache.this::evict);
+            }
+        });
+    }
+
+    // -- Категория входит во все снимки её событий; переименование редкое, поэтому кэш сбрасывается целиком
+    public void evictAllAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAll();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictAll();
+            }
+        });
+    }
+
+    private void evict(Long eventId) {
+        versions.incrementAndGet(stripe(eventId));
+        snapshots.invalidate(eventId);
+        log.debug("Снимок события id {} сброшен", eventId);
+    }
+
+    private void evictAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        snapshots.invalidateAll();
+    }
+
+    private static int stripe(Long eventId) {
+        return (int) (Long.hashCode(eventId) & (STRIPES - 1));
+    }
+}
@@ -1,6 +1,8 @@
 package event.service.events.controllers;
 
 import interaction.api.dto.event.EventFullDto;
+import interaction.api.dto.event.EventModerationOutcomeDto;
+import interaction.api.dto.event.EventModerationRequest;
 import interaction.api.dto.event.UpdateEventAdminRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
@@ -8,8 +10,11 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import event.service.events.pagination.CursorPage;
+import event.service.events.pagination.EventCursor;
 import event.service.events.services.AdminService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -21,6 +26,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static interaction.api.utility.AppConstants.DATE_TIME_FORMAT;
 
@@ -41,8 +47,14 @@ public class AdminController {
         return adminService.updateEvent(updateEventAdminRequest, eventId);
     }
 
+    @PatchMapping("/moderation")
+    public List<EventModerationOutcomeDto> moderateEvents(@Valid @RequestBody EventModerationRequest moderationRequest) {
+        log.info("Получен запрос на пакетную модерацию событий у админа");
+        return adminService.moderateEvents(moderationRequest);
+    }
+
     @GetMapping
-    public List<EventFullDto> getEvents(@RequestParam(required = false) List<Long> users,
+    public ResponseEntity<List<EventFullDto>> getEvents(@RequestParam(required = false) List<Long> users,
                                         @RequestParam(required = false) List<String> states,
                                         @RequestParam(required = false) List<Long> categories,
 
@@ -54,14 +66,28 @@ public class AdminController {
                                         @DateTimeFormat(pattern = DATE_TIME_FORMAT)
                                         LocalDateTime rangeEnd,
 
+                                        @RequestParam(required = false) String cursor,
                                         @RequestParam(defaultValue = "0") Integer from,
                                         @RequestParam(defaultValue = "10") Integer size) {
         log.info("Поступил запрос на обновление события для админа");
-        return adminService.getEventsWithAdminFilters(users, states, categories, rangeStart, rangeEnd, from, size);
+        CursorPage<EventFullDto> page = adminService.getEventsWithAdminFilters(users, states, categories,
+                rangeStart, rangeEnd, cursor, from, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(EventCursor.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
     }
 
     @GetMapping("/{eventId}")
     public EventFullDto getEvent(@PathVariable @Positive Long eventId) {
         return adminService.getEventById(eventId);
     }
+
+    @GetMapping("/batch")
+    public Map<Long, EventFullDto> getEventsByIds(@RequestParam List<Long> ids) {
+        log.info("Поступил запрос на получение {} событий по id", ids.size());
+        return adminService.getEventsByIds(ids);
+    }
 }
\ No newline at end of file
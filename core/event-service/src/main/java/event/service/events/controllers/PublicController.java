@@ -1,5 +1,8 @@
 package event.service.events.controllers;
 
+import event.service.events.geo.GeoArea;
+import event.service.events.pagination.CursorPage;
+import event.service.events.pagination.EventCursor;
 import event.service.events.services.PublicService;
 import interaction.api.dto.event.EventFullDto;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,6 +14,7 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -35,8 +39,7 @@ public class PublicController {
     PublicService publicService;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<EventFullDto> getEvents(@RequestParam(required = false) String text,
+    public ResponseEntity<List<EventFullDto>> getEvents(@RequestParam(required = false) String text,
                                         @RequestParam(required = false) List<Long> categories,
                                         @RequestParam(required = false) Boolean paid,
 
@@ -54,12 +57,17 @@ public class PublicController {
                                         @Pattern(regexp = "EVENT_DATE|VIEWS")
                                         String sort,
 
+                                        @RequestParam(required = false) Double lat,
+                                        @RequestParam(required = false) Double lon,
+                                        @RequestParam(required = false) Double radius,
+
+                                        @RequestParam(required = false) String cursor,
                                         @RequestParam(defaultValue = "0") Integer from,
                                         @RequestParam(defaultValue = "10") Integer size,
                                         HttpServletRequest request) {
         log.info("Поступил запрос на получение событий от ноунейма");
-        return publicService.getEventsWithFilters(text, categories, paid, rangeStart, rangeEnd,
-                onlyAvailable, sort, from, size, request);
+        return toResponse(publicService.getEventsWithFilters(text, categories, paid, rangeStart, rangeEnd,
+                onlyAvailable, GeoArea.of(lat, lon, radius), sort, cursor, from, size, request));
     }
 
     @GetMapping("/{eventId}")
@@ -83,4 +91,12 @@ public class PublicController {
         log.info("Поступил запрос на лайк для события");
         publicService.addLike(eventId, userId);
     }
+
+    private ResponseEntity<List<EventFullDto>> toResponse(CursorPage<EventFullDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(EventCursor.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
 }
@@ -0,0 +1,123 @@
+package event.service.events.enrichment;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
+import stats.client.AnalyzerClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// -- Обогащение ответов данными других сервисов. Независимые вызовы выполняются параллельно на виртуальных
+// -- потоках, поэтому задержка ответа — максимум задержек вызовов, а не их сумма. Рейтинг запрашивается
+// -- у analyzer порциями с таймаутом на каждый вызов; не ответившая порция получает рейтинг 0.0, как и раньше.
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventEnricher {
+    AnalyzerClient analyzerClient;
+    ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("event-enrichment-", 0).factory());
+    Duration timeout;
+    int chunkSize;
+
+    public EventEnricher(AnalyzerClient analyzerClient,
+                         @Value("${event.enrichment.timeout:PT2S}") Duration timeout,
+                         @Value("${event.enrichment.chunk-size:50}") int chunkSize) {
+        this.analyzerClient = analyzerClient;
+        this.timeout = timeout;
+        this.chunkSize = chunkSize;
+    }
+
+    public double rating(Long eventId) {
+        return ratings(List.of(eventId)).getOrDefault(eventId, 0.0);
+    }
+
+    public Map<Long, Double> ratings(List<Long> eventIds) {
+        return ratingsAsync(eventIds).join();
+    }
+
+    // -- Ни при каком сбое analyzer future не завершается ошибкой: недостающие рейтинги вызывающий берёт как 0.0
+    public CompletableFuture<Map<Long, Double>> ratingsAsync(List<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        List<CompletableFuture<Map<Long, Double>>> calls = new ArrayList<>();
+        for (int start = 0; start < eventIds.size(); start += chunkSize) {
+            List<Long> chunk = List.copyOf(eventIds.subList(start, Math.min(start + chunkSize, eventIds.size())));
+            calls.add(withTimeout(() -> fetchRatings(chunk))
+                    .exceptionally(e -> {
+                        log.warn("Рейтинг событий {} не получен, используется 0.0: {}", chunk, e.toString());
+                        return Map.of();
+                    }));
+        }
+
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<Long, Double> ratings = new HashMap<>();
+                    calls.forEach(call -> ratings.putAll(call.join()));
+                    return ratings;
+                });
+    }
+
+    // -- Вызов без запасного значения: ошибка передаётся вызывающему через await
+    public <T> CompletableFuture<T> async(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+
+    // -- По таймауту поток вызова прерывается, и блокирующий gRPC-вызов отменяется, а не висит в фоне
+    private <T> CompletableFuture<T> withTimeout(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, e) -> {
+                    if (e != null) {
+                        task.cancel(true);
+                    }
+                });
+    }
+
+    private Map<Long, Double> fetchRatings(List<Long> eventIds) {
+        return analyzerClient.getInteractionsCount(eventIds)
+                .collect(Collectors.toMap(RecommendedEventProto::getEventId, RecommendedEventProto::getScore,
+                        (first, second) -> first));
+    }
+}
@@ -0,0 +1,74 @@
+package event.service.events.geo;
+
+import interaction.api.exception.BadRequestException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+// -- Круг поиска "рядом со мной": центр и радиус в километрах. Описанный прямоугольник по широте и долготе
+// -- отбирает кандидатов по индексу location (lat, lon), точное расстояние по формуле гаверсинусов
+// -- проверяется уже только для них.
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class GeoArea {
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    static final double MAX_RADIUS_KM = Math.PI * EARTH_RADIUS_KM;
+
+    double lat;
+    double lon;
+    double radiusKm;
+    double minLat;
+    double maxLat;
+    double minLon;
+    double maxLon;
+
+    private GeoArea(double lat, double lon, double radiusKm) {
+        this.lat = lat;
+        this.lon = lon;
+        this.radiusKm = radiusKm;
+
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        double deltaLat = Math.toDegrees(angular);
+        this.minLat = Math.max(lat - deltaLat, -90.0);
+        this.maxLat = Math.min(lat + deltaLat, 90.0);
+
+        // -- Круг захватывает полюс: подходят все долготы
+        if (lat - deltaLat <= -90.0 || lat + deltaLat >= 90.0) {
+            this.minLon = -180.0;
+            this.maxLon = 180.0;
+            return;
+        }
+        double deltaLon = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(Math.toRadians(lat))));
+        double west = lon - deltaLon;
+        double east = lon + deltaLon;
+        // -- Прямоугольник через антимеридиан задаётся как minLon > maxLon
+        this.minLon = (west < -180.0) ? west + 360.0 : west;
+        this.maxLon = (east > 180.0) ? east - 360.0 : east;
+    }
+
+    // -- Поиск по расстоянию задаётся всеми тремя параметрами или не задаётся вовсе
+    public static GeoArea of(Double lat, Double lon, Double radiusKm) {
+        if (lat == null && lon == null && radiusKm == null) {
+            return null;
+        }
+        if (lat == null || lon == null || radiusKm == null) {
+            throw new BadRequestException("Для поиска рядом нужно указать lat, lon и radius");
+        }
+        if (lat < -90.0 || lat > 90.0 || lon < -180.0 || lon > 180.0) {
+            throw new BadRequestException("Координаты центра поиска вне допустимого диапазона");
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new BadRequestException("Радиус поиска должен быть больше 0 и не больше " + (long) MAX_RADIUS_KM + " км");
+        }
+        return new GeoArea(lat, lon, radiusKm);
+    }
+
+    public boolean crossesAntimeridian() {
+        return minLon > maxLon;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + lat + ", " + lon + ", " + radiusKm + " км)";
+    }
+}
@@ -0,0 +1,38 @@
+package event.service.events.kafka;
+
+import event.service.events.repository.EventRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// -- Удаляет отметки об обработанных сообщениях старше срока хранения: к этому времени сообщение
+// -- уже не может быть доставлено повторно, а таблица без очистки растёт бесконечно
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProcessedRequestMessageCleanup {
+    EventRepository eventRepository;
+
+    @NonFinal
+    @Value("${spring.kafka.request-status-consumer.processed-retention:P7D}")
+    Duration retention;
+
+    @Scheduled(cron = "${spring.kafka.request-status-consumer.processed-cleanup-cron:0 30 * * * *}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = eventRepository.deleteProcessedRequestMessagesBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Удалено устаревших отметок об обработанных сообщениях: {}", deleted);
+        }
+    }
+}
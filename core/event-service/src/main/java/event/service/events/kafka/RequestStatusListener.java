@@ -0,0 +1,30 @@
+package event.service.events.kafka;
+
+import event.service.events.services.ConfirmedRequestsService;
+import interaction.api.dto.request.RequestStatusChangedMessage;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@SuppressWarnings("unused")
+public class RequestStatusListener {
+    ConfirmedRequestsService confirmedRequestsService;
+
+    // -- Исключение приводит к повторной доставке (DefaultErrorHandler); повтор безопасен благодаря messageId
+    @KafkaListener(
+            topics = "${spring.kafka.request-status-consumer.topic}",
+            containerFactory = "requestStatusKafkaListenerFactory"
+    )
+    public void handleStatusChange(@Payload RequestStatusChangedMessage message) {
+        log.debug("Получена смена статуса заявки: {}", message);
+        confirmedRequestsService.applyStatusChange(message);
+    }
+}
@@ -26,6 +26,7 @@ public interface EventMapper {
     @Mapping(target = "confirmedRequests", constant = "0L")
     @Mapping(target = "createdOn",         expression = "java(java.time.LocalDateTime.now())")
     @Mapping(target = "publishedOn",       ignore = true)
+    @Mapping(target = "rating",            ignore = true)
     @Mapping(target = "category",  source = "category")
     @Mapping(target = "initiatorId", source = "userId")
     @Mapping(target = "location",  source = "location")
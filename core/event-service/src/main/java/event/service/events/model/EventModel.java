@@ -45,7 +45,9 @@ public class EventModel {
     @JoinColumn(name = "category_id", nullable = false)
     Category category;
 
-    @Column(name = "confirmed_requests")
+    // -- Счётчик ведётся атомарными UPDATE по сообщениям из request-service (ConfirmedRequestsService),
+    // -- поэтому при сохранении сущности он не перезаписывается
+    @Column(name = "confirmed_requests", insertable = false, updatable = false)
     @Min(0)
     Long confirmedRequests;
 
@@ -67,6 +69,10 @@ public class EventModel {
     @Column(name = "participant_limit")
     Long participantLimit;
 
+    // -- Денормализованная сумма взаимодействий из analyzer; пишется только EventRatingSync
+    @Column(name = "rating", insertable = false, updatable = false)
+    Double rating;
+
     @Column(name = "published_on")
     LocalDateTime publishedOn;
 
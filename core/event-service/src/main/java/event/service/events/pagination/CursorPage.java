@@ -0,0 +1,17 @@
+package event.service.events.pagination;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+// -- Страница выдачи и курсор следующей страницы (null, если страница последняя или порядок не поддерживает курсор)
+@Getter
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CursorPage<T> {
+    List<T> content;
+    String nextCursor;
+}
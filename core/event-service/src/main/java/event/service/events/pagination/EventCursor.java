@@ -0,0 +1,73 @@
+package event.service.events.pagination;
+
+import event.service.events.model.EventModel;
+import interaction.api.exception.BadRequestException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+// -- Позиция последнего выданного события. Клиент получает её непрозрачной строкой в заголовке
+// -- X-Next-Cursor и передаёт обратно параметром cursor; следующая страница выбирается условием
+// -- "строго после позиции" по индексу, без OFFSET.
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    EventOrder order;
+    LocalDateTime eventDate;
+    Double rating;
+    Long id;
+
+    public static EventCursor after(EventOrder order, EventModel event) {
+        return new EventCursor(order,
+                order == EventOrder.EVENT_DATE ? event.getEventDate() : null,
+                order == EventOrder.RATING ? event.getRating() : null,
+                event.getId());
+    }
+
+    // -- Курсор выдаётся только за полной страницей: неполная означает, что данных больше нет
+    public static String nextAfter(List<EventModel> page, int size, EventOrder order) {
+        if (order == null || page.isEmpty() || page.size() < size) {
+            return null;
+        }
+        return after(order, page.get(page.size() - 1)).encode();
+    }
+
+    // -- Формат до кодирования: ПОРЯДОК|значение ключа сортировки|id
+    public String encode() {
+        String value = switch (order) {
+            case EVENT_DATE -> eventDate.toString();
+            case RATING -> Double.toString(rating);
+            case ID -> "";
+        };
+        String raw = order.name() + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String token, EventOrder expectedOrder) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            EventOrder order = EventOrder.valueOf(parts[0]);
+            if (order != expectedOrder) {
+                throw new BadRequestException("Курсор получен для другой сортировки: " + order);
+            }
+            LocalDateTime eventDate = order == EventOrder.EVENT_DATE ? LocalDateTime.parse(parts[1]) : null;
+            Double rating = order == EventOrder.RATING ? Double.valueOf(parts[1]) : null;
+            return new EventCursor(order, eventDate, rating, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeException e) {
+            throw new BadRequestException("Некорректный курсор");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package event.service.events.pagination;
+
+// -- Порядки выдачи, для которых поддерживается курсорная (keyset) пагинация
+public enum EventOrder {
+    ID,
+    EVENT_DATE,
+    RATING
+}
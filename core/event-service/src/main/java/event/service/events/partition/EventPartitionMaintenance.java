@@ -0,0 +1,225 @@
+package event.service.events.partition;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// -- Поддерживает секции таблицы event: холодную event_cold для всего, что раньше первого обслуживаемого
+// -- месяца, и месячные секции от текущего месяца на event.partitioning.months-ahead вперёд. Прошедшие
+// -- месяцы остаются отдельными секциями и отсекаются планировщиком в публичной выдаче (event_date >= now).
+// -- События дальше горизонта попадают в event_default и переносятся в месячную секцию при её создании.
+// -- Экземпляры сервиса выполняют обслуживание по очереди: каждая транзакция берёт advisory-блокировку
+// -- и заново проверяет, какие секции уже есть.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventPartitionMaintenance {
+    static final String COLD_PARTITION = "event_cold";
+    static final String DEFAULT_PARTITION = "event_default";
+    static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    // -- Произвольная константа, общая для всех экземпляров event-service
+    static final long ADVISORY_LOCK_KEY = 0x45564e54504152L;
+
+    // -- search_vector вычисляемый и при переносе не копируется
+    static final String[] COLUMNS = {"id", "annotation", "category_id", "description", "event_date", "paid",
+            "participant_limit", "confirmed_requests", "request_moderation", "title", "initiator_id", "state",
+            "created_on", "published_on", "location_id", "rating"};
+    static final String COLUMN_LIST = String.join(", ", COLUMNS);
+
+    // -- CREATE [UNIQUE ]INDEX имя ON [ONLY ]таблица остаток
+    static final Pattern INDEX_DEFINITION =
+            Pattern.compile("CREATE (UNIQUE )?INDEX (\\S+) ON (?:ONLY )?\\S+ (.+)", Pattern.DOTALL);
+
+    static final String PARTITION_EXISTS = "SELECT EXISTS (SELECT 1 FROM pg_inherits i " +
+                                           "JOIN pg_class c ON c.oid = i.inhrelid " +
+                                           "WHERE i.inhparent = 'event'::regclass AND c.relname = ?)";
+
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+
+    @NonFinal
+    @Value("${event.partitioning.months-ahead:3}")
+    int monthsAhead;
+
+    @NonFinal
+    @Value("${event.partitioning.move-batch-size:1000}")
+    int moveBatchSize;
+
+    @NonFinal
+    @Value("${event.partitioning.lock-timeout:5s}")
+    String lockTimeout;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${event.partitioning.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        LocalDate firstMonth = LocalDate.now().withDayOfMonth(1);
+        try {
+            ensurePartition(COLD_PARTITION, "MINVALUE", bound(firstMonth));
+            for (int i = 0; i <= monthsAhead; i++) {
+                LocalDate month = firstMonth.plusMonths(i);
+                ensurePartition("event_p" + month.format(PARTITION_SUFFIX), bound(month), bound(month.plusMonths(1)));
+            }
+        } catch (RuntimeException e) {
+            // -- Например, lock_timeout при долгих запросах к event: секции будут созданы при следующем запуске
+            log.warn("Обслуживание секций event не завершено: {}", e.getMessage());
+        }
+    }
+
+    private void ensurePartition(String name, String from, String to) {
+        String range = "MINVALUE".equals(from)
+                ? "event_date < " + to
+                : "event_date >= " + from + " AND event_date < " + to;
+        String bounds = "FOR VALUES FROM (" + from + ") TO (" + to + ")";
+
+        // -- Обычный случай: в секции по умолчанию нет строк диапазона, секция создаётся сразу
+        Boolean created = inLockedTransaction(() -> {
+            if (partitionExists(name)) {
+                return true;
+            }
+            if (hasRows(DEFAULT_PARTITION, range)) {
+                return false;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF event " + bounds);
+            log.info("Создана секция {} [{}, {})", name, from, to);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(created)) {
+            moveThroughStaging(name, range, bounds);
+        }
+    }
+
+    // -- Строки диапазона копируются в отдельную таблицу порциями, без блокировки event: пока идёт копирование,
+    // -- они остаются видны в event_default. Индексы промежуточной таблицы строятся тоже до финала, и ATTACH
+    // -- подхватывает их вместо построения под блокировкой. В финале под ACCESS EXCLUSIVE на event_default
+    // -- (сама event блокируется только SHARE UPDATE EXCLUSIVE) строки, изменённые во время копирования,
+    // -- досинхронизируются, удаляются из event_default, и промежуточная таблица подключается секцией.
+    private void moveThroughStaging(String name, String range, String bounds) {
+        inLockedTransaction(() -> {
+            if (partitionExists(name)) {
+                return null;
+            }
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " (LIKE event INCLUDING DEFAULTS " +
+                                 "INCLUDING GENERATED, PRIMARY KEY (id, event_date), " +
+                                 "CONSTRAINT " + name + "_range CHECK (" + range + "))");
+            return null;
+        });
+
+        long afterId = 0;
+        int batches = 0;
+        Long lastId;
+        do {
+            long batchAfter = afterId;
+            lastId = inLockedTransaction(() -> partitionExists(name) ? null : jdbcTemplate.queryForObject(
+                    "WITH batch AS (SELECT " + COLUMN_LIST + " FROM " + DEFAULT_PARTITION +
+                    " WHERE " + range + " AND id > ? ORDER BY id LIMIT ?), " +
+                    "copied AS (INSERT INTO " + name + " (" + COLUMN_LIST + ") SELECT " + COLUMN_LIST +
+                    " FROM batch ON CONFLICT DO NOTHING) SELECT max(id) FROM batch",
+                    Long.class, batchAfter, moveBatchSize));
+            if (lastId != null) {
+                afterId = lastId;
+                batches++;
+            }
+        } while (lastId != null);
+
+        // -- Индексы строятся по уже скопированным строкам; промежуточную таблицу никто, кроме нас, не читает
+        inLockedTransaction(() -> {
+            if (!partitionExists(name)) {
+                createPartitionIndexes(name);
+            }
+            return null;
+        });
+
+        String exclusion = DEFAULT_PARTITION + "_excl_" + name;
+        Integer moved = inLockedTransaction(() -> {
+            if (partitionExists(name)) {
+                return 0;
+            }
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout + "'");
+            jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.update("DELETE FROM " + name + " s WHERE NOT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION +
+                                " d WHERE d.id = s.id AND d.event_date = s.event_date AND " +
+                                rowOf("d") + " IS NOT DISTINCT FROM " + rowOf("s") + ")");
+            jdbcTemplate.update("INSERT INTO " + name + " (" + COLUMN_LIST + ") SELECT " + COLUMN_LIST +
+                                " FROM " + DEFAULT_PARTITION + " d WHERE " + range + " AND NOT EXISTS (SELECT 1 FROM " +
+                                name + " s WHERE s.id = d.id AND s.event_date = d.event_date)");
+            int deleted = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range);
+            // -- Строки диапазона лежат в event_default до удаления выше, поэтому проверить исключающий CHECK
+            // -- раньше нельзя. Он проверяется по оставшимся строкам, и ATTACH не сканирует event_default повторно,
+            // -- а CHECK на диапазон промежуточной таблицы избавляет ATTACH от проверки её строк.
+            jdbcTemplate.execute("ALTER TABLE " + DEFAULT_PARTITION + " ADD CONSTRAINT " + exclusion +
+                                 " CHECK (NOT (" + range + "))");
+            jdbcTemplate.execute("ALTER TABLE event ATTACH PARTITION " + name + " " + bounds);
+            jdbcTemplate.execute("ALTER TABLE " + name + " DROP CONSTRAINT " + name + "_range");
+            jdbcTemplate.execute("ALTER TABLE " + DEFAULT_PARTITION + " DROP CONSTRAINT " + exclusion);
+            return deleted;
+        });
+        log.info("Создана секция {} {}, порций копирования: {}, перенесено событий: {}", name, bounds, batches, moved);
+    }
+
+    // -- Повторяет на промежуточной таблице секционированные индексы event (кроме первичного ключа, он уже есть),
+    // -- чтобы ATTACH привязал готовые индексы, а не строил их под блокировкой
+    private void createPartitionIndexes(String name) {
+        List<String> definitions = jdbcTemplate.queryForList(
+                "SELECT pg_get_indexdef(i.indexrelid) FROM pg_index i " +
+                "WHERE i.indrelid = 'event'::regclass AND NOT i.indisprimary", String.class);
+        for (String definition : definitions) {
+            Matcher matcher = INDEX_DEFINITION.matcher(definition);
+            if (!matcher.matches()) {
+                log.warn("Не удалось разобрать определение индекса event, ATTACH построит его сам: {}", definition);
+                continue;
+            }
+            String unique = matcher.group(1) == null ? "" : matcher.group(1);
+            jdbcTemplate.execute("CREATE " + unique + "INDEX IF NOT EXISTS " + name + "_" + matcher.group(2) +
+                                 " ON " + name + " " + matcher.group(3));
+        }
+    }
+
+    private <T> T inLockedTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, ADVISORY_LOCK_KEY);
+            return action.get();
+        });
+    }
+
+    private boolean partitionExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(PARTITION_EXISTS, Boolean.class, name));
+    }
+
+    private boolean hasRows(String table, String range) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + " WHERE " + range + ")", Boolean.class));
+    }
+
+    private static String rowOf(String alias) {
+        return Arrays.stream(COLUMNS).map(column -> alias + "." + column)
+                .collect(Collectors.joining(", ", "ROW(", ")"));
+    }
+
+    private static String bound(LocalDate month) {
+        return "'" + month.atStartOfDay(ZoneId.systemDefault()).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME) + "'";
+    }
+}
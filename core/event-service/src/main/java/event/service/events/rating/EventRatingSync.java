@@ -0,0 +1,85 @@
+package event.service.events.rating;
+
+import event.service.events.repository.EventDateKey;
+import event.service.events.repository.EventRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
+import stats.client.AnalyzerClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// -- Переносит суммы взаимодействий из analyzer в event.rating, чтобы sort=VIEWS выполнялся в БД по индексу.
+// -- Опубликованные предстоящие события обходятся порциями по id; каждая порция — один вызов analyzer и один пакет UPDATE.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventRatingSync {
+    // -- Строка не переписывается, если рейтинг не изменился: меньше мёртвых версий строк и записей в WAL.
+    // -- event_date в условии позволяет отсечь все секции, кроме одной
+    static final String UPDATE_RATING =
+            "UPDATE event SET rating = ? WHERE id = ? AND event_date = ? AND rating IS DISTINCT FROM ?";
+
+    EventRepository eventRepository;
+    AnalyzerClient analyzerClient;
+    JdbcTemplate jdbcTemplate;
+
+    @NonFinal
+    @Value("${event.rating-sync.batch-size:500}")
+    int batchSize;
+
+    @Scheduled(initialDelayString = "${event.rating-sync.initial-delay:PT30S}",
+            fixedDelayString = "${event.rating-sync.interval:PT1M}")
+    public void syncRatings() {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        int synced = 0;
+
+        List<EventDateKey> keys = eventRepository.findPublishedKeysAfter(afterId, PageRequest.of(0, batchSize));
+        while (!keys.isEmpty()) {
+            Long firstId = keys.get(0).getId();
+            Long lastId = keys.get(keys.size() - 1).getId();
+            try {
+                syncBatch(keys);
+                synced += keys.size();
+            } catch (RuntimeException e) {
+                // -- Недоступность analyzer (в том числе истёкший дедлайн) не должна останавливать обход:
+                // -- порция обновится в следующий запуск
+                log.warn("Не удалось обновить рейтинг событий id {}..{}: {}", firstId, lastId, e.getMessage());
+            }
+            afterId = lastId;
+            keys = keys.size() < batchSize
+                    ? List.of()
+                    : eventRepository.findPublishedKeysAfter(afterId, PageRequest.of(0, batchSize));
+        }
+
+        log.debug("Рейтинг {} событий синхронизирован за {} мс", synced, System.currentTimeMillis() - started);
+    }
+
+    private void syncBatch(List<EventDateKey> keys) {
+        List<Long> ids = keys.stream().map(EventDateKey::getId).toList();
+        Map<Long, Double> scores = analyzerClient.getInteractionsCount(ids)
+                .collect(Collectors.toMap(RecommendedEventProto::getEventId, RecommendedEventProto::getScore,
+                        (first, second) -> first));
+
+        // -- События без взаимодействий analyzer не возвращает — их рейтинг 0
+        List<Object[]> args = new ArrayList<>(keys.size());
+        for (EventDateKey key : keys) {
+            double score = scores.getOrDefault(key.getId(), 0.0);
+            args.add(new Object[]{score, key.getId(), key.getEventDate(), score});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_RATING, args);
+    }
+}
@@ -0,0 +1,10 @@
+package event.service.events.repository;
+
+import java.time.LocalDateTime;
+
+// -- Первичный ключ секционированной event: по event_date UPDATE отсекает лишние секции
+public interface EventDateKey {
+    Long getId();
+
+    LocalDateTime getEventDate();
+}
@@ -0,0 +1,14 @@
+package event.service.events.repository;
+
+import interaction.api.enums.EventState;
+
+import java.time.LocalDateTime;
+
+// -- Поля события, по которым проверяются правила модерации; остальное для пакетной модерации не читается
+public interface EventModerationView {
+    Long getId();
+
+    EventState getState();
+
+    LocalDateTime getEventDate();
+}
@@ -0,0 +1,74 @@
+package event.service.events.repository;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import event.service.events.model.QEventModel;
+import interaction.api.enums.EventState;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// -- Собирает условие фильтрации событий только из заданных фильтров: вместо "(?1 IS NULL OR ...)"
+// -- в SQL попадают лишь реальные условия, и для каждой комбинации строится свой план по индексам
+// -- (state, event_date), (category_id, event_date), (initiator_id, event_date).
+public final class EventPredicateBuilder {
+    private static final QEventModel EVENT = QEventModel.eventModel;
+
+    private final BooleanBuilder builder = new BooleanBuilder();
+
+    private EventPredicateBuilder() {
+    }
+
+    public static EventPredicateBuilder create() {
+        return new EventPredicateBuilder();
+    }
+
+    public EventPredicateBuilder initiatorIn(Collection<Long> initiatorIds) {
+        if (initiatorIds != null && !initiatorIds.isEmpty()) {
+            builder.and(initiatorIds.size() == 1
+                    ? EVENT.initiatorId.eq(initiatorIds.iterator().next())
+                    : EVENT.initiatorId.in(initiatorIds));
+        }
+        return this;
+    }
+
+    public EventPredicateBuilder stateIn(Collection<EventState> states) {
+        if (states != null && !states.isEmpty()) {
+            builder.and(states.size() == 1 ? EVENT.state.eq(states.iterator().next()) : EVENT.state.in(states));
+        }
+        return this;
+    }
+
+    public EventPredicateBuilder categoryIn(Collection<Long> categoryIds) {
+        if (categoryIds != null && !categoryIds.isEmpty()) {
+            builder.and(EVENT.category.id.in(categoryIds));
+        }
+        return this;
+    }
+
+    public EventPredicateBuilder eventDateFrom(LocalDateTime rangeStart) {
+        if (rangeStart != null) {
+            builder.and(EVENT.eventDate.goe(rangeStart));
+        }
+        return this;
+    }
+
+    public EventPredicateBuilder eventDateBefore(LocalDateTime rangeEnd) {
+        if (rangeEnd != null) {
+            builder.and(EVENT.eventDate.lt(rangeEnd));
+        }
+        return this;
+    }
+
+    public EventPredicateBuilder idAfter(Long afterId) {
+        if (afterId != null) {
+            builder.and(EVENT.id.gt(afterId));
+        }
+        return this;
+    }
+
+    // -- Пустой BooleanBuilder QueryDSL не добавляет в WHERE
+    public Predicate build() {
+        return builder;
+    }
+}
@@ -1,48 +1,72 @@
 package event.service.events.repository;
 
 import event.service.events.model.EventModel;
-import interaction.api.enums.EventState;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
-public interface EventRepository extends JpaRepository<EventModel, Long> {
-    List<EventModel> findAllByCategoryId(Long catId);
+public interface EventRepository extends JpaRepository<EventModel, Long>, EventSearchRepository {
+    boolean existsByCategoryId(Long catId);
 
-    Page<EventModel> findByInitiatorId(Long userId, Pageable pageable);
+    // -- category и location нужны для EventFullDto: загружаются join'ом в том же запросе
+    @Override
+    @EntityGraph(attributePaths = {"category", "location"})
+    Optional<EventModel> findById(Long id);
 
+    @EntityGraph(attributePaths = {"category", "location"})
     Optional<EventModel> findByIdAndInitiatorId(Long eventId, Long userId);
 
-    @Query("""
-                SELECT e
-                FROM EventModel AS e
-                WHERE e.state = 'PUBLISHED'
-                AND (?1 IS NULL OR e.annotation ILIKE %?1% OR e.description ILIKE %?1%)
-                AND (?2 IS NULL OR e.category.id IN ?2)
-                AND (?3 IS NULL OR e.paid = ?3)
-                AND (CAST(?4 AS timestamp) IS NULL AND e.eventDate >= CURRENT_TIMESTAMP OR e.eventDate >= ?4)
-                AND (CAST(?5 AS timestamp) IS NULL OR e.eventDate < ?5)
-                AND (?6 = false OR e.participantLimit = 0 OR e.participantLimit > e.confirmedRequests)
-            """)
-    List<EventModel> findAllByFiltersPublic(String text, List<Long> categoryIds, Boolean paid, LocalDateTime rangeStart,
-                                            LocalDateTime rangeEnd, Boolean onlyAvailable, Pageable pageable);
-
-    @Query("""
-                SELECT e
-                FROM EventModel AS e
-                WHERE (?1 IS NULL OR e.initiatorId IN ?1)
-                AND (?2 IS NULL OR e.state IN ?2)
-                AND (?3 IS NULL OR e.category.id IN ?3)
-                AND (CAST(?4 AS timestamp) IS NULL OR e.eventDate >= ?4)
-                AND (CAST(?5 AS timestamp) IS NULL OR e.eventDate < ?5)
-            """)
-    Page<EventModel> findAllByFiltersAdmin(List<Long> userIds, List<EventState> states, List<Long> categoryIds,
-                                           LocalDateTime rangeStart, LocalDateTime rangeEnd, Pageable pageable);
-
+    @EntityGraph(attributePaths = {"category", "location"})
     List<EventModel> findAllByIdIn(List<Long> eventIds);
-}
\ No newline at end of file
+
+    // -- Только предстоящие события: рейтинг нужен публичной выдаче, а она читает лишь горячие секции
+    @Query("SELECT e.id AS id, e.eventDate AS eventDate FROM EventModel e " +
+           "WHERE e.state = 'PUBLISHED' AND e.eventDate >= CURRENT_TIMESTAMP AND e.id > :afterId ORDER BY e.id")
+    List<EventDateKey> findPublishedKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT e.id AS id, e.state AS state, e.eventDate AS eventDate FROM EventModel e WHERE e.id IN :eventIds")
+    List<EventModerationView> findModerationViews(@Param("eventIds") List<Long> eventIds);
+
+    // -- Пакетная модерация: правила повторены в WHERE, поэтому событие, изменённое после проверки,
+    // -- не обновится и не попадёт в RETURNING
+    @Query(value = "WITH updated AS (" +
+                   "    UPDATE event SET state = 'PUBLISHED', published_on = :now " +
+                   "    WHERE id IN (:eventIds) AND state = 'PENDING' AND event_date >= :earliestDate " +
+                   "    RETURNING id" +
+                   ") SELECT id FROM updated", nativeQuery = true)
+    List<Long> publishPending(@Param("eventIds") List<Long> eventIds,
+                              @Param("now") LocalDateTime now,
+                              @Param("earliestDate") LocalDateTime earliestDate);
+
+    @Query(value = "WITH updated AS (" +
+                   "    UPDATE event SET state = 'CANCELED' " +
+                   "    WHERE id IN (:eventIds) AND state <> 'PUBLISHED' AND event_date >= :now " +
+                   "    RETURNING id" +
+                   ") SELECT id FROM updated", nativeQuery = true)
+    List<Long> rejectUnpublished(@Param("eventIds") List<Long> eventIds, @Param("now") LocalDateTime now);
+
+    // -- Отмечает сообщение как обработанное; 0 — сообщение уже встречалось
+    @Modifying
+    @Query(value = "INSERT INTO processed_request_message (message_id) VALUES (:messageId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int markRequestMessageProcessed(@Param("messageId") UUID messageId);
+
+    // -- Повторная доставка старше срока хранения топика невозможна, такие отметки больше не нужны
+    @Modifying
+    @Query(value = "DELETE FROM processed_request_message WHERE processed_on < :before", nativeQuery = true)
+    int deleteProcessedRequestMessagesBefore(@Param("before") LocalDateTime before);
+
+    // -- Атомарное изменение счётчика без чтения строки события
+    @Modifying
+    @Query(value = "UPDATE event SET confirmed_requests = GREATEST(confirmed_requests + :delta, 0) WHERE id = :eventId",
+            nativeQuery = true)
+    int addConfirmedRequests(@Param("eventId") Long eventId, @Param("delta") long delta);
+}
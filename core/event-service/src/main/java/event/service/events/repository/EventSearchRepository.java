@@ -0,0 +1,24 @@
+package event.service.events.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import event.service.events.geo.GeoArea;
+import event.service.events.model.EventModel;
+import event.service.events.pagination.EventCursor;
+import event.service.events.pagination.EventOrder;
+import interaction.api.dto.event.EventShortDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventSearchRepository {
+    // -- order == null — сортировка по релевантности (только при заданном text), курсор для неё не поддерживается
+    List<EventModel> searchPublic(String text, List<Long> categoryIds, Boolean paid, LocalDateTime rangeStart,
+                                  LocalDateTime rangeEnd, Boolean onlyAvailable, EventOrder order,
+                                  GeoArea area, EventCursor cursor, int from, int size);
+
+    List<EventModel> findAllMatching(Predicate predicate, long offset, int limit);
+
+    // -- Проекция для списков: без description и location, категория — join в том же запросе
+    List<EventShortDto> findShortDtos(Predicate predicate, long offset, int limit, OrderSpecifier<?>... orders);
+}
@@ -0,0 +1,183 @@
+package event.service.events.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import event.service.category.model.QCategory;
+import event.service.events.geo.GeoArea;
+import event.service.events.model.EventModel;
+import event.service.events.model.QEventModel;
+import event.service.events.pagination.EventCursor;
+import event.service.events.pagination.EventOrder;
+import interaction.api.dto.category.CategoryDto;
+import interaction.api.dto.event.EventShortDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// -- Публичный поиск событий. Текст ищется по search_vector (GIN) с ранжированием ts_rank_cd,
+// -- подстрока в аннотации и описании — через ILIKE по триграммным индексам. Условия добавляются
+// -- только для заданных фильтров, чтобы планировщик видел простой запрос без "?1 IS NULL OR ...".
+// -- Поиск рядом с точкой (GeoArea) добавляет join с location и условие по расстоянию.
+// -- Остальные выборки по фильтрам собираются через EventPredicateBuilder.
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@SuppressWarnings("unused")
+public class EventSearchRepositoryImpl implements EventSearchRepository {
+    static final String TS_CONFIG = "'russian'";
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<EventModel> searchPublic(String text, List<Long> categoryIds, Boolean paid, LocalDateTime rangeStart,
+                                         LocalDateTime rangeEnd, Boolean onlyAvailable, EventOrder order,
+                                         GeoArea area, EventCursor cursor, int from, int size) {
+        StringBuilder sql = new StringBuilder("SELECT e.* FROM event e");
+        Map<String, Object> params = new HashMap<>();
+
+        if (area != null) {
+            sql.append(" JOIN location l ON l.id = e.location_id");
+        }
+        sql.append(" WHERE e.state = 'PUBLISHED'");
+        if (area != null) {
+            appendGeoArea(sql, params, area);
+        }
+
+        boolean hasText = text != null && !text.isBlank();
+        if (hasText) {
+            sql.append(" AND (e.search_vector @@ websearch_to_tsquery(").append(TS_CONFIG).append(", :text)")
+                    .append(" OR e.annotation ILIKE :pattern ESCAPE '\\'")
+                    .append(" OR e.description ILIKE :pattern ESCAPE '\\')");
+            params.put("text", text);
+            params.put("pattern", "%" + escapeLike(text) + "%");
+        }
+        if (categoryIds != null && !categoryIds.isEmpty()) {
+            sql.append(" AND e.category_id IN (:categoryIds)");
+            params.put("categoryIds", categoryIds);
+        }
+        if (paid != null) {
+            sql.append(" AND e.paid = :paid");
+            params.put("paid", paid);
+        }
+        if (rangeStart != null) {
+            sql.append(" AND e.event_date >= :rangeStart");
+            params.put("rangeStart", rangeStart);
+        } else {
+            sql.append(" AND e.event_date >= CURRENT_TIMESTAMP");
+        }
+        if (rangeEnd != null) {
+            sql.append(" AND e.event_date < :rangeEnd");
+            params.put("rangeEnd", rangeEnd);
+        }
+        if (Boolean.TRUE.equals(onlyAvailable)) {
+            sql.append(" AND (e.participant_limit = 0 OR e.participant_limit > e.confirmed_requests)");
+        }
+
+        // -- Keyset: продолжение строго после курсора по тому же ключу, что и ORDER BY
+        if (cursor != null && order == EventOrder.EVENT_DATE) {
+            sql.append(" AND (e.event_date, e.id) > (:cursorDate, :cursorId)");
+            params.put("cursorDate", cursor.getEventDate());
+            params.put("cursorId", cursor.getId());
+        } else if (cursor != null && order == EventOrder.RATING) {
+            sql.append(" AND (e.rating < :cursorRating OR (e.rating = :cursorRating AND e.id > :cursorId))");
+            params.put("cursorRating", cursor.getRating());
+            params.put("cursorId", cursor.getId());
+        } else if (cursor != null && order == EventOrder.ID) {
+            sql.append(" AND e.id > :cursorId");
+            params.put("cursorId", cursor.getId());
+        }
+
+        if (order == EventOrder.EVENT_DATE) {
+            sql.append(" ORDER BY e.event_date, e.id");
+        } else if (order == EventOrder.RATING) {
+            sql.append(" ORDER BY e.rating DESC, e.id");
+        } else if (order == null && hasText) {
+            // -- Совпадения только по подстроке получают нулевой ранг и идут после полнотекстовых
+            sql.append(" ORDER BY ts_rank_cd(e.search_vector, websearch_to_tsquery(")
+                    .append(TS_CONFIG).append(", :text)) DESC, e.id");
+        } else {
+            sql.append(" ORDER BY e.id");
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString(), EventModel.class);
+        params.forEach(query::setParameter);
+        return query.setFirstResult(cursor == null ? from : 0)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    @Override
+    public List<EventModel> findAllMatching(Predicate predicate, long offset, int limit) {
+        QEventModel event = QEventModel.eventModel;
+        return new JPAQueryFactory(entityManager)
+                .selectFrom(event)
+                .join(event.category).fetchJoin()
+                .join(event.location).fetchJoin()
+                .where(predicate)
+                .orderBy(event.id.asc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    @Override
+    public List<EventShortDto> findShortDtos(Predicate predicate, long offset, int limit,
+                                             OrderSpecifier<?>... orders) {
+        QEventModel event = QEventModel.eventModel;
+        QCategory category = QCategory.category;
+        return new JPAQueryFactory(entityManager)
+                .select(Projections.constructor(EventShortDto.class,
+                        event.id,
+                        event.annotation,
+                        Projections.constructor(CategoryDto.class, category.id, category.name),
+                        event.confirmedRequests,
+                        event.eventDate,
+                        event.initiatorId,
+                        event.paid,
+                        event.title,
+                        event.rating))
+                .from(event)
+                .join(event.category, category)
+                .where(predicate)
+                .orderBy(orders)
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    // -- Прямоугольник даёт условие по индексу location (lat, lon), гаверсинус отсекает его углы.
+    // -- LEAST защищает asin от значений чуть больше 1 из-за погрешности вычислений.
+    private static void appendGeoArea(StringBuilder sql, Map<String, Object> params, GeoArea area) {
+        sql.append(" AND l.lat BETWEEN :minLat AND :maxLat");
+        sql.append(area.crossesAntimeridian()
+                ? " AND (l.lon >= :minLon OR l.lon <= :maxLon)"
+                : " AND l.lon BETWEEN :minLon AND :maxLon");
+        sql.append(" AND 2 * :earthRadius * asin(LEAST(1, sqrt(")
+                .append("power(sin(radians(l.lat - :centerLat) / 2), 2)")
+                .append(" + cos(radians(:centerLat)) * cos(radians(l.lat))")
+                .append(" * power(sin(radians(l.lon - :centerLon) / 2), 2)))) <= :radius");
+        params.put("minLat", area.getMinLat());
+        params.put("maxLat", area.getMaxLat());
+        params.put("minLon", area.getMinLon());
+        params.put("maxLon", area.getMaxLon());
+        params.put("earthRadius", GeoArea.EARTH_RADIUS_KM);
+        params.put("centerLat", area.getLat());
+        params.put("centerLon", area.getLon());
+        params.put("radius", area.getRadiusKm());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
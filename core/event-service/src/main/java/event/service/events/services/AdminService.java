@@ -1,16 +1,24 @@
 package event.service.events.services;
 
+import event.service.events.pagination.CursorPage;
 import interaction.api.dto.event.EventFullDto;
+import interaction.api.dto.event.EventModerationOutcomeDto;
+import interaction.api.dto.event.EventModerationRequest;
 import interaction.api.dto.event.UpdateEventAdminRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public interface AdminService {
     EventFullDto updateEvent(UpdateEventAdminRequest updateEventAdminRequest, Long eventId);
 
-    List<EventFullDto> getEventsWithAdminFilters(List<Long> users, List<String> states, List<Long> categoryIds,
-        LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size);
+    CursorPage<EventFullDto> getEventsWithAdminFilters(List<Long> users, List<String> states, List<Long> categoryIds,
+        LocalDateTime rangeStart, LocalDateTime rangeEnd, String cursor, Integer from, Integer size);
 
     EventFullDto getEventById(Long eventId);
+
+    Map<Long, EventFullDto> getEventsByIds(List<Long> eventIds);
+
+    List<EventModerationOutcomeDto> moderateEvents(EventModerationRequest moderationRequest);
 }
@@ -0,0 +1,7 @@
+package event.service.events.services;
+
+import interaction.api.dto.request.RequestStatusChangedMessage;
+
+public interface ConfirmedRequestsService {
+    void applyStatusChange(RequestStatusChangedMessage message);
+}
@@ -2,7 +2,8 @@ package event.service.events.services;
 
 import interaction.api.dto.event.EventFullDto;
 import jakarta.servlet.http.HttpServletRequest;
-import event.service.events.model.EventModel;
+import event.service.events.geo.GeoArea;
+import event.service.events.pagination.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -10,11 +11,12 @@ import java.util.List;
 public interface PublicService {
     EventFullDto getEventById(Long eventId, HttpServletRequest request, Long userId);
 
-    List<EventModel> findAllByCategoryId(Long catId);
+    boolean existsByCategoryId(Long catId);
 
-    List<EventFullDto> getEventsWithFilters(String text, List<Long> categoryIds, Boolean paid, LocalDateTime rangeStart,
-                                            LocalDateTime rangeEnd, Boolean onlyAvailable, String sort, Integer from,
-                                            Integer size, HttpServletRequest request);
+    CursorPage<EventFullDto> getEventsWithFilters(String text, List<Long> categoryIds, Boolean paid,
+                                                  LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
+                                                  GeoArea area, String sort, String cursor, Integer from, Integer size,
+                                                  HttpServletRequest request);
 
     List<EventFullDto> getRecommendation(Long userId, Long max);
 
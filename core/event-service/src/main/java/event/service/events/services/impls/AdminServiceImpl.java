@@ -1,16 +1,14 @@
 package event.service.events.services.impls;
 
 import event.service.category.service.CategoryService;
-import event.service.feign.client.RequestClient;
-import feign.FeignException;
+import com.querydsl.core.types.Predicate;
 import interaction.api.dto.event.EventFullDto;
+import interaction.api.dto.event.EventModerationOutcomeDto;
+import interaction.api.dto.event.EventModerationRequest;
 import interaction.api.dto.event.UpdateEventAdminRequest;
-import interaction.api.dto.request.ParticipationRequestDto;
 import interaction.api.exception.BadRequestException;
 import interaction.api.exception.ConflictException;
 import interaction.api.exception.NotFoundException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.util.CollectionUtils;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -18,26 +16,35 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import event.service.category.model.Category;
 import interaction.api.enums.EventState;
+import interaction.api.enums.ModerationOutcome;
 import interaction.api.enums.StateActionAdmin;
+import event.service.compilation.cache.CompilationViewCache;
+import event.service.events.cache.EventSnapshotCache;
+import event.service.events.enrichment.EventEnricher;
 import event.service.events.mapper.EventMapper;
 import event.service.events.model.EventModel;
+import event.service.events.pagination.CursorPage;
+import event.service.events.pagination.EventCursor;
+import event.service.events.pagination.EventOrder;
+import event.service.events.repository.EventModerationView;
+import event.service.events.repository.EventPredicateBuilder;
 import event.service.events.repository.EventRepository;
 import event.service.events.services.AdminService;
 import event.service.location.Location;
 import event.service.location.LocationMapper;
 import event.service.location.service.LocationServiceImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import stats.client.AnalyzerClient;
-import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -51,16 +58,19 @@ public class AdminServiceImpl implements AdminService {
     CategoryService categoryService;
     LocationServiceImpl locationService;
     LocationMapper locationMapper;
-    AnalyzerClient analyzerClient;
-    RequestClient requestClient;
+    EventEnricher eventEnricher;
+    EventSnapshotCache eventSnapshotCache;
+    CompilationViewCache compilationViewCache;
 
     @Transactional(readOnly = true)
-    public List<EventFullDto> getEventsWithAdminFilters(List<Long> userIds, List<String> states, List<Long> categoryIds,
-                                                        LocalDateTime rangeStart, LocalDateTime rangeEnd, Integer from, Integer size) {
+    public CursorPage<EventFullDto> getEventsWithAdminFilters(List<Long> userIds, List<String> states,
+                                                              List<Long> categoryIds, LocalDateTime rangeStart,
+                                                              LocalDateTime rangeEnd, String cursor, Integer from,
+                                                              Integer size) {
 
         log.debug("Получен запрос на получения админ события по фильтрам с параметрами: " +
-                  "userIds={}, states={}, categoryIds={}, rangeStart={}, rangeEnd={}, from={}, size={}",
-                userIds, states, categoryIds, rangeStart, rangeEnd, from, size);
+                  "userIds={}, states={}, categoryIds={}, rangeStart={}, rangeEnd={}, cursor={}, from={}, size={}",
+                userIds, states, categoryIds, rangeStart, rangeEnd, cursor, from, size);
 
         if ((rangeStart != null) && (rangeEnd != null) && (rangeStart.isAfter(rangeEnd)))
             throw new BadRequestException("Время начала не может быть позже времени конца");
@@ -77,35 +87,31 @@ public class AdminServiceImpl implements AdminService {
             }
         }
 
-        List<Long> finalUserIds = CollectionUtils.isEmpty(userIds) ? null : userIds;
-        List<EventState> finalEventStates = CollectionUtils.isEmpty(eventStates) ? null : eventStates;
-        List<Long> finalCategoryIds = CollectionUtils.isEmpty(categoryIds) ? null : categoryIds;
+        // -- С курсором страница выбирается по индексу первичного ключа (id > курсора), без OFFSET
+        EventCursor after = cursor == null ? null : EventCursor.decode(cursor, EventOrder.ID);
 
-        Pageable pageable = PageRequest.of(from / size, size);
+        Predicate predicate = EventPredicateBuilder.create()
+                .initiatorIn(userIds)
+                .stateIn(eventStates)
+                .categoryIn(categoryIds)
+                .eventDateFrom(rangeStart)
+                .eventDateBefore(rangeEnd)
+                .idAfter(after == null ? null : after.getId())
+                .build();
 
-        Page<EventModel> eventsPage = eventRepository.findAllByFiltersAdmin(
-                finalUserIds,
-                finalEventStates,
-                finalCategoryIds,
-                rangeStart,
-                rangeEnd,
-                pageable
-        );
-
-        List<EventModel> events = eventsPage.getContent();
-        fillConfirmedRequestsInModels(events);
+        List<EventModel> events = eventRepository.findAllMatching(predicate, after == null ? from : 0, size);
 
         log.debug("Собираем событие для ответа");
-        return events.stream()
+        Map<Long, Double> ratings = eventEnricher.ratings(events.stream().map(EventModel::getId).toList());
+        List<EventFullDto> content = events.stream()
                 .map(eventModel -> {
                     EventFullDto eventFull = eventMapper.toFullDto(eventModel);
-                    eventFull.setRating(analyzerClient.getInteractionsCount(List.of(eventModel.getId()))
-                            .map(RecommendedEventProto::getScore)
-                            .findFirst()
-                            .orElse(0.0));
+                    eventFull.setRating(ratings.getOrDefault(eventModel.getId(), 0.0));
                     return eventFull;
                 })
                 .collect(Collectors.toCollection(ArrayList::new));
+
+        return new CursorPage<>(content, EventCursor.nextAfter(events, size, EventOrder.ID));
     }
 
     @Transactional
@@ -122,67 +128,122 @@ public class AdminServiceImpl implements AdminService {
         changeEventState(event, updateRequest.getState());
         updateEventFields(event, updateRequest);
 
-        fillConfirmedRequestInModel(event);
         eventRepository.save(event);
+        eventSnapshotCache.evictAfterCommit(eventId);
+        compilationViewCache.rebuildAfterCommit();
 
         log.debug("Сборка события для ответа");
         EventFullDto result = eventMapper.toFullDto(event);
-        result.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
+        result.setRating(eventEnricher.rating(event.getId()));
 
         return result;
     }
 
-    @Transactional(readOnly = true)
+    // -- Вызывается другими сервисами на каждую заявку и комментарий: ответ берётся из снимка
     @Override
     public EventFullDto getEventById(Long eventId) {
-        EventModel event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new NotFoundException(String.format("Событие с id= %d не найдено", eventId)));
+        return eventSnapshotCache.get(eventId, this::loadEventById);
+    }
 
-        fillConfirmedRequestInModel(event);
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, EventFullDto> getEventsByIds(List<Long> eventIds) {
+        log.debug("Получен запрос на получение событий по {} id", eventIds.size());
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
 
-        EventFullDto dto = eventMapper.toFullDto(event);
-        dto.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
-        return dto;
-    }
+        // -- Один запрос в БД (category и location через entity graph), рейтинги запрашиваются параллельно с ним
+        CompletableFuture<Map<Long, Double>> scores = eventEnricher.ratingsAsync(eventIds);
+        List<EventModel> events = eventRepository.findAllByIdIn(eventIds);
+        Map<Long, Double> ratings = scores.join();
 
-    private void fillConfirmedRequestsInModels(List<EventModel> events) {
-        if (CollectionUtils.isEmpty(events)) return;
+        return events.stream()
+                .collect(Collectors.toMap(EventModel::getId, event -> {
+                    EventFullDto dto = eventMapper.toFullDto(event);
+                    dto.setRating(ratings.getOrDefault(event.getId(), 0.0));
+                    return dto;
+                }));
+    }
 
-        List<Long> eventIds = events.stream()
-                .map(EventModel::getId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .toList();
+    // -- Очередь модерации обрабатывается одним запросом: события читаются одной выборкой, правила
+    // -- проверяются в памяти, смена статуса — один UPDATE на все прошедшие проверку события
+    @Override
+    @Transactional
+    public List<EventModerationOutcomeDto> moderateEvents(EventModerationRequest moderationRequest) {
+        List<Long> eventIds = moderationRequest.getEventIds().stream().distinct().toList();
+        StateActionAdmin action = moderationRequest.getState();
+        log.debug("Получен запрос на пакетную модерацию {} событий, действие {}", eventIds.size(), action);
+
+        Map<Long, EventModerationView> events = eventRepository.findModerationViews(eventIds).stream()
+                .collect(Collectors.toMap(EventModerationView::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, EventModerationOutcomeDto> outcomes = new LinkedHashMap<>();
+        List<Long> accepted = new ArrayList<>();
+        for (Long eventId : eventIds) {
+            EventModerationView event = events.get(eventId);
+            EventModerationOutcomeDto rejected = (event == null)
+                    ? outcome(eventId, ModerationOutcome.NOT_FOUND,
+                        String.format("Событие с id= %d не найдено", eventId))
+                    : checkModeration(event, action, now);
+            outcomes.put(eventId, rejected);
+            if (rejected == null) {
+                accepted.add(eventId);
+            }
+        }
 
-        if (eventIds.isEmpty()) {
-            events.forEach(e -> e.setConfirmedRequests(0L));
-            return;
+        List<Long> applied = accepted.isEmpty()
+                ? List.of()
+                : (action == StateActionAdmin.PUBLISH_EVENT)
+                    ? eventRepository.publishPending(accepted, now, now.plusHours(1))
+                    : eventRepository.rejectUnpublished(accepted, now);
+        Set<Long> appliedIds = new HashSet<>(applied);
+        for (Long eventId : accepted) {
+            outcomes.put(eventId, appliedIds.contains(eventId)
+                    ? outcome(eventId, ModerationOutcome.APPLIED, null)
+                    : outcome(eventId, ModerationOutcome.CONFLICT, "Событие было изменено во время модерации"));
         }
 
-        try {
-            Map<Long, List<ParticipationRequestDto>> confirmedMap = requestClient.prepareConfirmedRequests(eventIds);
-            events.forEach(event -> {
-                List<ParticipationRequestDto> reqs = confirmedMap.getOrDefault(event.getId(), Collections.emptyList());
-                event.setConfirmedRequests((long) reqs.size());
-            });
-        } catch (FeignException e) {
-            log.warn("Не удалось заполнить confirmedRequests для eventIds {}: Fallback 0L", eventIds, e);
-            events.forEach(event -> event.setConfirmedRequests(0L));
+        if (!applied.isEmpty()) {
+            eventSnapshotCache.evictAfterCommit(applied);
+            compilationViewCache.rebuildAfterCommit();
         }
+        log.info("Пакетная модерация {}: применено к {} из {} событий", action, applied.size(), eventIds.size());
+        return new ArrayList<>(outcomes.values());
     }
 
-    private void fillConfirmedRequestInModel(EventModel event) {
-        if (event != null && event.getId() != null) {
-            fillConfirmedRequestsInModels(List.of(event));
-        } else if (event != null) {
-            event.setConfirmedRequests(0L);
+    // -- Те же правила, что в validateEventState и changeEventState; null — проверка пройдена
+    private EventModerationOutcomeDto checkModeration(EventModerationView event, StateActionAdmin action,
+                                                      LocalDateTime now) {
+        if (action == StateActionAdmin.PUBLISH_EVENT && event.getState() != EventState.PENDING) {
+            return outcome(event.getId(), ModerationOutcome.CONFLICT,
+                    "Только события в статусе ожидание могут быть опубликованы");
         }
+        if (action == StateActionAdmin.REJECT_EVENT && event.getState() == EventState.PUBLISHED) {
+            return outcome(event.getId(), ModerationOutcome.CONFLICT,
+                    "Только неопубликованные события могут быть отменены");
+        }
+        if (event.getEventDate().isBefore(now)) {
+            return outcome(event.getId(), ModerationOutcome.INVALID, "Дата события не может быть в прошлом");
+        }
+        if (action == StateActionAdmin.PUBLISH_EVENT && event.getEventDate().isBefore(now.plusHours(1))) {
+            return outcome(event.getId(), ModerationOutcome.CONFLICT, "Время старта события должно быть позже");
+        }
+        return null;
+    }
+
+    private static EventModerationOutcomeDto outcome(Long eventId, ModerationOutcome outcome, String message) {
+        return new EventModerationOutcomeDto(eventId, outcome, message);
+    }
+
+    private EventFullDto loadEventById(Long eventId) {
+        EventModel event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new NotFoundException(String.format("Событие с id= %d не найдено", eventId)));
+
+        EventFullDto dto = eventMapper.toFullDto(event);
+        dto.setRating(eventEnricher.rating(event.getId()));
+        return dto;
     }
 
     private void validateEventState(EventModel event, StateActionAdmin state) {
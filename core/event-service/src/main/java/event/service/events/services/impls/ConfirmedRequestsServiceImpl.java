@@ -0,0 +1,55 @@
+package event.service.events.services.impls;
+
+import event.service.events.cache.EventSnapshotCache;
+import event.service.events.repository.EventRepository;
+import event.service.events.services.ConfirmedRequestsService;
+import interaction.api.dto.request.RequestStatusChangedMessage;
+import interaction.api.enums.RequestStatus;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ConfirmedRequestsServiceImpl implements ConfirmedRequestsService {
+    EventRepository eventRepository;
+    EventSnapshotCache eventSnapshotCache;
+
+    @Override
+    @Transactional
+    public void applyStatusChange(RequestStatusChangedMessage message) {
+        long delta = confirmedDelta(message.getPreviousStatus(), message.getStatus());
+        if (delta == 0) {
+            return;
+        }
+
+        // -- Отметка об обработке и изменение счётчика фиксируются одной транзакцией
+        if (eventRepository.markRequestMessageProcessed(message.getMessageId()) == 0) {
+            log.debug("Сообщение {} уже обработано, пропускаем", message.getMessageId());
+            return;
+        }
+
+        if (eventRepository.addConfirmedRequests(message.getEventId(), delta) == 0) {
+            log.warn("Событие id {} не найдено, изменение confirmedRequests на {} пропущено",
+                    message.getEventId(), delta);
+            return;
+        }
+        eventSnapshotCache.evictAfterCommit(message.getEventId());
+        log.debug("confirmedRequests события id {} изменён на {}", message.getEventId(), delta);
+    }
+
+    private long confirmedDelta(RequestStatus previousStatus, RequestStatus status) {
+        if (status == RequestStatus.CONFIRMED && previousStatus != RequestStatus.CONFIRMED) {
+            return 1;
+        }
+        if (previousStatus == RequestStatus.CONFIRMED && status != RequestStatus.CONFIRMED) {
+            return -1;
+        }
+        return 0;
+    }
+}
@@ -18,8 +18,6 @@ import interaction.api.exception.NotFoundException;
 import interaction.api.exception.UserOperationFailedException;
 import event.service.category.service.CategoryService;
 import event.service.feign.client.UserClient;
-import stats.client.AnalyzerClient;
-import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -27,24 +25,25 @@ import lombok.extern.slf4j.Slf4j;
 import event.service.category.model.Category;
 import interaction.api.enums.EventState;
 import interaction.api.enums.StateAction;
+import event.service.compilation.cache.CompilationViewCache;
+import event.service.events.cache.EventSnapshotCache;
+import event.service.events.enrichment.EventEnricher;
 import event.service.events.mapper.EventMapper;
 import event.service.events.model.EventModel;
+import event.service.events.model.QEventModel;
+import event.service.events.repository.EventPredicateBuilder;
 import event.service.events.repository.EventRepository;
 import event.service.events.services.PrivateService;
 import event.service.location.Location;
 import event.service.location.LocationMapper;
 import event.service.location.service.LocationServiceImpl;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -61,7 +60,9 @@ public class PrivateServiceImpl implements PrivateService {
     CategoryService categoryService;
     LocationServiceImpl locationService;
     LocationMapper locationMapper;
-    AnalyzerClient analyzerClient;
+    EventEnricher eventEnricher;
+    EventSnapshotCache eventSnapshotCache;
+    CompilationViewCache compilationViewCache;
 
     @Override
     public EventFullDto createEvent(NewEventDto newEvent, Long userId) {
@@ -95,16 +96,14 @@ public class PrivateServiceImpl implements PrivateService {
         changeEventState(event, update);
         updateEventFields(event, update);
 
-        fillConfirmedRequestInModel(event);
         eventRepository.save(event);
+        eventSnapshotCache.evictAfterCommit(eventId);
+        compilationViewCache.rebuildAfterCommit();
 
         log.debug("Сборка события для ответа");
 
         EventFullDto result = eventMapper.toFullDto(event);
-        result.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
+        result.setRating(eventEnricher.rating(event.getId()));
         return result;
     }
 
@@ -112,21 +111,20 @@ public class PrivateServiceImpl implements PrivateService {
     @Transactional(readOnly = true)
     public List<EventShortDto> getUserEvents(Long userId, Integer from, Integer size) {
         log.debug("Получен запрос для получения событий пользователя");
-        findExistingUser(userId);
-
-        Page<EventModel> eventsPage = eventRepository.findByInitiatorId(
-                userId, PageRequest.of(from / size, size, Sort.by("eventDate").descending()));
+        // -- Проверка пользователя в user-service идёт параллельно с запросом в БД
+        CompletableFuture<UserShortDto> user = eventEnricher.async(() -> findExistingUser(userId));
 
-        List<EventModel> events = eventsPage.getContent();
-        fillConfirmedRequestsInModels(events);
+        // -- Список строится проекцией: description и location не читаются, категория приходит join'ом
+        List<EventShortDto> events = eventRepository.findShortDtos(
+                EventPredicateBuilder.create().initiatorIn(List.of(userId)).build(),
+                from, size,
+                QEventModel.eventModel.eventDate.desc(), QEventModel.eventModel.id.desc());
+        EventEnricher.await(user);
 
+        Map<Long, Double> ratings = eventEnricher.ratings(events.stream().map(EventShortDto::getId).toList());
         return events.stream()
-                .map(event -> {
-                    EventShortDto dto = eventMapper.toShortDto(event);
-                    dto.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                            .map(RecommendedEventProto::getScore)
-                            .findFirst()
-                            .orElse(0.0));
+                .map(dto -> {
+                    dto.setRating(ratings.getOrDefault(dto.getId(), 0.0));
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -136,27 +134,29 @@ public class PrivateServiceImpl implements PrivateService {
     @Transactional(readOnly = true)
     public EventFullDto getEventByEventId(Long userId, Long eventId) {
         log.debug("Получен запрос события по id");
-        findExistingUser(userId);
-        EventModel event = findByIdAndInitiator(eventId, userId);
+        // -- id события известен сразу: проверка пользователя и рейтинг запрашиваются параллельно с БД
+        CompletableFuture<UserShortDto> user = eventEnricher.async(() -> findExistingUser(userId));
+        CompletableFuture<Map<Long, Double>> ratings = eventEnricher.ratingsAsync(List.of(eventId));
+        Optional<EventModel> found = eventRepository.findByIdAndInitiatorId(eventId, userId);
+        EventEnricher.await(user);
+        EventModel event = found.orElseThrow(() -> new NotFoundException(
+                String.format("Событие с id %d для пользователя с id %d не найдено.", eventId, userId)));
 
         log.debug("Сборка события для ответа");
 
         EventFullDto result = eventMapper.toFullDto(event);
-        result.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
+        result.setRating(ratings.join().getOrDefault(eventId, 0.0));
         return result;
     }
 
     @Override
     public List<EventModel> findAllById(List<Long> ids) {
-        return eventRepository.findAllById(ids);
+        return eventRepository.findAllByIdIn(ids);
     }
 
     @Override
     public Optional<EventModel> findById(Long id) {
-        return eventRepository.findById(id).map(this::fillConfirmedRequestInModelSafe);
+        return eventRepository.findById(id);
     }
 
     @Override
@@ -184,64 +184,17 @@ public class PrivateServiceImpl implements PrivateService {
         command.setEventId(eventId);
         command.setUpdateDto(dtoReq);
 
-        EventRequestStatusUpdateResultDto result = requestClient.updateParticipationRequestsStatus(command);
-
-        Long newConfirmedCount = (long) result.getConfirmedRequests().size();
-        event.setConfirmedRequests(newConfirmedCount);
-
-        eventRepository.save(event);
-
-        log.debug("Обновлен confirmedRequests для event {} в значение {}", eventId, newConfirmedCount);
-        return result;
+        // -- confirmedRequests события обновится по сообщениям request-service (ConfirmedRequestsService)
+        return requestClient.updateParticipationRequestsStatus(command);
     }
 
     private EventModel findByIdAndInitiator(Long eventId, Long initiatorId) {
         EventModel event = eventRepository.findByIdAndInitiatorId(eventId, initiatorId)
                 .orElseThrow(() -> new NotFoundException(
                         String.format("Событие с id %d для пользователя с id %d не найдено.", eventId, initiatorId)));
-        fillConfirmedRequestInModel(event);
-        return event;
-    }
-
-    private EventModel fillConfirmedRequestInModelSafe(EventModel event) {
-        fillConfirmedRequestInModel(event);
         return event;
     }
 
-    private void fillConfirmedRequestsInModels(List<EventModel> events) {
-        if (events == null || events.isEmpty()) return;
-
-        List<Long> eventIds = events.stream()
-                .map(EventModel::getId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .toList();
-
-        if (eventIds.isEmpty()) {
-            events.forEach(e -> e.setConfirmedRequests(0L));
-            return;
-        }
-
-        try {
-            Map<Long, List<ParticipationRequestDto>> confirmedMap = requestClient.prepareConfirmedRequests(eventIds);
-            events.forEach(event -> {
-                List<ParticipationRequestDto> reqs = confirmedMap.getOrDefault(event.getId(), Collections.emptyList());
-                event.setConfirmedRequests((long) reqs.size());
-            });
-        } catch (FeignException e) {
-            log.warn("Не удалось заполнить confirmedRequests для eventIds {}: Fallback 0L", eventIds, e);
-            events.forEach(event -> event.setConfirmedRequests(0L));
-        }
-    }
-
-    private void fillConfirmedRequestInModel(EventModel event) {
-        if (event != null && event.getId() != null) {
-            fillConfirmedRequestsInModels(List.of(event));
-        } else if (event != null) {
-            event.setConfirmedRequests(0L);
-        }
-    }
-
     private UserShortDto findExistingUser(Long userId) {
         if (userId == null) {
             throw new BadRequestException("id пользователя не может быть null");
@@ -1,14 +1,18 @@
 package event.service.events.services.impls;
 
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import event.service.events.enrichment.EventEnricher;
+import event.service.events.geo.GeoArea;
 import event.service.events.mapper.EventMapper;
 import event.service.events.model.EventModel;
+import event.service.events.pagination.CursorPage;
+import event.service.events.pagination.EventCursor;
+import event.service.events.pagination.EventOrder;
 import event.service.events.repository.EventRepository;
 import event.service.events.services.PublicService;
+import event.service.events.tracking.ViewTracker;
 import event.service.feign.client.RequestClient;
-import feign.FeignException;
 import interaction.api.dto.event.EventFullDto;
-import interaction.api.dto.request.ParticipationRequestDto;
 import interaction.api.enums.EventState;
 import interaction.api.exception.BadRequestException;
 import interaction.api.exception.NotFoundException;
@@ -17,7 +21,6 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import stats.client.AnalyzerClient;
@@ -27,10 +30,9 @@ import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,38 +45,54 @@ public class PublicServiceImpl implements PublicService {
     EventMapper eventMapper;
     JPAQueryFactory jpaQueryFactory;
     AnalyzerClient analyzerClient;
+    EventEnricher eventEnricher;
     CollectorClient collectorClient;
+    ViewTracker viewTracker;
     RequestClient requestClient;
 
     @Transactional(readOnly = true)
-    public List<EventFullDto> getEventsWithFilters(String text, List<Long> categoryIds, Boolean paid,
-                                                   LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable, String sort, Integer from,
-                                                   Integer size, HttpServletRequest request) {
+    public CursorPage<EventFullDto> getEventsWithFilters(String text, List<Long> categoryIds, Boolean paid,
+                                                         LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
+                                                         GeoArea area, String sort,
+                                                         String cursor, Integer from, Integer size, HttpServletRequest request) {
 
         log.debug("Вызван метод getEventsWithFilters. Параметры: text='{}', categoryIds={}, paid={}, rangeStart={}, " +
-                  "rangeEnd={}, onlyAvailable={}, sort='{}', from={}, size={}",
-                text, categoryIds, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
+                  "rangeEnd={}, onlyAvailable={}, area={}, sort='{}', cursor='{}', from={}, size={}",
+                text, categoryIds, paid, rangeStart, rangeEnd, onlyAvailable, area, sort, cursor, from, size);
 
         if ((rangeStart != null) && (rangeEnd != null) && (rangeStart.isAfter(rangeEnd)))
             throw new BadRequestException("Время начала на может быть позже окончания");
 
-        List<EventModel> events = eventRepository.findAllByFiltersPublic(
-                text, categoryIds, paid, rangeStart, rangeEnd, onlyAvailable, PageRequest.of(from, size));
+        // -- Без явной сортировки поиск по тексту упорядочен по релевантности, остальная выдача — по id
+        boolean hasText = text != null && !text.isBlank();
+        EventOrder order;
+        if ("EVENT_DATE".equals(sort)) {
+            order = EventOrder.EVENT_DATE;
+        } else if ("VIEWS".equals(sort)) {
+            order = EventOrder.RATING;
+        } else {
+            order = hasText ? null : EventOrder.ID;
+        }
+        if (cursor != null && order == null) {
+            throw new BadRequestException("Курсор не поддерживается для сортировки по релевантности");
+        }
+        EventCursor after = cursor == null ? null : EventCursor.decode(cursor, order);
 
-        fillConfirmedRequestsInModels(events);
+        List<EventModel> events = eventRepository.searchPublic(
+                text, categoryIds, paid, rangeStart, rangeEnd, onlyAvailable, order, area, after, from, size);
 
         log.debug("Собираем события для ответа");
+        Map<Long, Double> ratings = eventEnricher.ratings(events.stream().map(EventModel::getId).toList());
 
-        return events.stream().
+        List<EventFullDto> content = events.stream().
                 map(eventModel -> {
                     EventFullDto dto = eventMapper.toFullDto(eventModel);
-                    dto.setRating(analyzerClient.getInteractionsCount(List.of(eventModel.getId()))
-                            .map(RecommendedEventProto::getScore)
-                            .findFirst()
-                            .orElse(0.0));
+                    dto.setRating(ratings.getOrDefault(eventModel.getId(), 0.0));
                     return dto;
                 })
                 .collect(Collectors.toCollection(ArrayList::new));
+
+        return new CursorPage<>(content, EventCursor.nextAfter(events, size, order));
     }
 
     @Transactional(readOnly = true)
@@ -87,21 +105,19 @@ public class PublicServiceImpl implements PublicService {
         if (event.getState() != EventState.PUBLISHED) {
             throw new NotFoundException(String.format("Событие с id= %d недоступно, так как не опубликовано", eventId));
         }
+        viewTracker.track(userId, eventId);
 
         log.debug("Собираем событие для ответа");
         EventFullDto result = eventMapper.toFullDto(event);
-        result.setRating(analyzerClient.getInteractionsCount(List.of(event.getId()))
-                .map(RecommendedEventProto::getScore)
-                .findFirst()
-                .orElse(0.0));
+        result.setRating(eventEnricher.rating(event.getId()));
 
         return result;
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<EventModel> findAllByCategoryId(Long catId) {
-        return eventRepository.findAllByCategoryId(catId);
+    public boolean existsByCategoryId(Long catId) {
+        return eventRepository.existsByCategoryId(catId);
     }
 
     @Override
@@ -111,17 +127,16 @@ public class PublicServiceImpl implements PublicService {
         List<Long> eventIds = analyzerClient.getRecommendationsForUser(userId, max)
                 .map(RecommendedEventProto::getEventId)
                 .toList();
-        List<EventModel> events = eventRepository.findAllByIdIn(eventIds);
 
-        fillConfirmedRequestsInModels(events);
+        // -- id известны из ответа analyzer: рейтинги запрашиваются параллельно с чтением событий из БД
+        CompletableFuture<Map<Long, Double>> ratings = eventEnricher.ratingsAsync(eventIds);
+        List<EventModel> events = eventRepository.findAllByIdIn(eventIds);
+        Map<Long, Double> scores = ratings.join();
 
         return events.stream()
                 .map(eventModel -> {
                     EventFullDto dto = eventMapper.toFullDto(eventModel);
-                    dto.setRating(analyzerClient.getInteractionsCount(List.of(eventModel.getId()))
-                            .map(RecommendedEventProto::getScore)
-                            .findFirst()
-                            .orElse(0.0));
+                    dto.setRating(scores.getOrDefault(eventModel.getId(), 0.0));
                     return dto;
                 })
                 .collect(Collectors.toCollection(ArrayList::new));
@@ -138,30 +153,4 @@ public class PublicServiceImpl implements PublicService {
             throw new NotFoundException("Пользователь не регистрировался на данное событие");
         }
     }
-
-    private void fillConfirmedRequestsInModels(List<EventModel> events) {
-        if (events == null || events.isEmpty()) return;
-
-        List<Long> eventIds = events.stream()
-                .map(EventModel::getId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .toList();
-
-        if (eventIds.isEmpty()) {
-            events.forEach(e -> e.setConfirmedRequests(0L));
-            return;
-        }
-
-        try {
-            Map<Long, List<ParticipationRequestDto>> confirmedMap = requestClient.prepareConfirmedRequests(eventIds);
-            events.forEach(event -> {
-                List<ParticipationRequestDto> reqs = confirmedMap.getOrDefault(event.getId(), Collections.emptyList());
-                event.setConfirmedRequests((long) reqs.size());
-            });
-        } catch (FeignException e) {
-            log.warn("Не удалось заполнить confirmedRequests для eventIds {}: Fallback 0L", eventIds, e);
-            events.forEach(event -> event.setConfirmedRequests(0L));
-        }
-    }
 }
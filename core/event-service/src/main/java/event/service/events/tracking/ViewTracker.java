@@ -0,0 +1,119 @@
+package event.service.events.tracking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.grpc.ewm.stats.message.UserActionProto;
+import stats.client.CollectorClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// -- Просмотры событий (ACTION_VIEW) для collector. Поток запроса только кладёт просмотр в ограниченную очередь,
+// -- gRPC-вызовы делает отдельный поток пакетами. Повторный просмотр того же события тем же пользователем
+// -- в пределах окна не отправляется. При переполнении очереди и сбое collector просмотры теряются:
+// -- это статистика, и задерживать из-за неё чтение события нельзя.
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ViewTracker {
+    static final String ACTION_VIEW = "ACTION_VIEW";
+
+    CollectorClient collectorClient;
+    BlockingQueue<UserActionProto> queue;
+    Cache<ViewKey, Boolean> recentViews;
+    int batchSize;
+    Duration pollTimeout;
+    AtomicLong dropped = new AtomicLong();
+    Thread sender;
+
+    public ViewTracker(CollectorClient collectorClient,
+                       @Value("${event.view-tracking.queue-capacity:10000}") int queueCapacity,
+                       @Value("${event.view-tracking.batch-size:100}") int batchSize,
+                       @Value("${event.view-tracking.poll-timeout:PT1S}") Duration pollTimeout,
+                       @Value("${event.view-tracking.dedup-window:PT10M}") Duration dedupWindow,
+                       @Value("${event.view-tracking.dedup-maximum-size:100000}") long dedupMaximumSize) {
+        this.collectorClient = collectorClient;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+        this.recentViews = Caffeine.newBuilder()
+                .expireAfterWrite(dedupWindow)
+                .maximumSize(dedupMaximumSize)
+                .build();
+        this.sender = Thread.ofPlatform().name("view-tracker").daemon().unstarted(this::sendLoop);
+    }
+
+    @PostConstruct
+    void start() {
+        sender.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        sender.interrupt();
+    }
+
+    // -- Не блокирует: при полной очереди просмотр отбрасывается
+    public void track(Long userId, Long eventId) {
+        ViewKey key = new ViewKey(userId, eventId);
+        if (recentViews.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+
+        UserActionProto view = collectorClient.buildUserAction(userId, eventId, ACTION_VIEW, Instant.now());
+        if (!queue.offer(view)) {
+            recentViews.invalidate(key);
+            long total = dropped.incrementAndGet();
+            if (total % 1000 == 1) {
+                log.warn("Очередь просмотров переполнена, всего отброшено: {}", total);
+            }
+        }
+    }
+
+    // -- Пакет собирается из всего, что накопилось в очереди, но не больше batchSize
+    private void sendLoop() {
+        List<UserActionProto> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                UserActionProto first = queue.poll(pollTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                collectorClient.collectUserActions(batch);
+                log.debug("В collector отправлено просмотров: {}", batch.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Не удалось отправить {} просмотров в collector: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+        log.info("Отправка просмотров остановлена, в очереди осталось: {}", queue.size());
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    static final class ViewKey {
+        Long userId;
+        Long eventId;
+    }
+}
@@ -1,8 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 DROP TABLE IF EXISTS location CASCADE;
 DROP TABLE IF EXISTS categories CASCADE;
 DROP TABLE IF EXISTS event CASCADE;
+DROP SEQUENCE IF EXISTS event_id_seq;
 DROP TABLE IF EXISTS compilations CASCADE;
 DROP TABLE IF EXISTS compilation_event CASCADE;
+DROP TABLE IF EXISTS processed_request_message CASCADE;
 
 CREATE TABLE IF NOT EXISTS location (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -15,8 +19,14 @@ CREATE TABLE IF NOT EXISTS categories (
   name VARCHAR(50) NOT NULL UNIQUE
 );
 
+-- event секционирована по event_date (EventPartitionMaintenance): публичная выдача с event_date >= now
+-- читает только текущую и будущие месячные секции, прошедшие события остаются в холодных секциях.
+-- Ключ секционирования входит в первичный ключ, id уникален за счёт последовательности.
+-- Identity-столбцы на секционированных таблицах PostgreSQL 16 не поддерживает.
+CREATE SEQUENCE IF NOT EXISTS event_id_seq;
+
 CREATE TABLE IF NOT EXISTS event (
-  id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  id BIGINT NOT NULL DEFAULT nextval('event_id_seq'),
   annotation VARCHAR(2000) NOT NULL,
   category_id BIGINT NOT NULL,
   description VARCHAR(7000) NOT NULL,
@@ -31,11 +41,38 @@ CREATE TABLE IF NOT EXISTS event (
   created_on TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
   published_on TIMESTAMP WITH TIME ZONE,
   location_id BIGINT NOT NULL,
+  rating DOUBLE PRECISION NOT NULL DEFAULT 0,
+  search_vector TSVECTOR GENERATED ALWAYS AS (
+      setweight(to_tsvector('russian', title), 'A') ||
+      setweight(to_tsvector('russian', annotation), 'B') ||
+      setweight(to_tsvector('russian', description), 'C')
+  ) STORED,
+  PRIMARY KEY (id, event_date),
   CONSTRAINT fk_category_event FOREIGN KEY (category_id) REFERENCES categories(id)
      ON UPDATE CASCADE ON DELETE CASCADE,
   CONSTRAINT fk_location_event FOREIGN KEY (location_id) REFERENCES location(id)
      ON UPDATE CASCADE ON DELETE CASCADE
-);
+) PARTITION BY RANGE (event_date);
+
+-- События вне созданных секций; месячные секции создаёт и переносит в них строки EventPartitionMaintenance
+CREATE TABLE IF NOT EXISTS event_default PARTITION OF event DEFAULT;
+
+-- Полнотекстовый поиск по событиям (EventSearchRepositoryImpl) и триграммы для поиска подстроки
+CREATE INDEX IF NOT EXISTS idx_event_search_vector ON event USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_event_annotation_trgm ON event USING GIN (annotation gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_event_description_trgm ON event USING GIN (description gin_trgm_ops);
+-- Фильтры событий (EventPredicateBuilder, EventSearchRepositoryImpl)
+CREATE INDEX IF NOT EXISTS idx_event_state_date ON event (state, event_date);
+CREATE INDEX IF NOT EXISTS idx_event_category_date ON event (category_id, event_date);
+CREATE INDEX IF NOT EXISTS idx_event_initiator_date ON event (initiator_id, event_date);
+CREATE INDEX IF NOT EXISTS idx_event_paid ON event (paid);
+-- Keyset-пагинация публичной выдачи по (event_date, id)
+CREATE INDEX IF NOT EXISTS idx_event_published_date_id ON event (event_date, id) WHERE state = 'PUBLISHED';
+-- Сортировка по популярности (sort=VIEWS); rating обновляет EventRatingSync
+CREATE INDEX IF NOT EXISTS idx_event_published_rating_id ON event (rating DESC, id) WHERE state = 'PUBLISHED';
+-- Поиск рядом с точкой: прямоугольник по координатам (GeoArea), затем события по location_id
+CREATE INDEX IF NOT EXISTS idx_location_lat_lon ON location (lat, lon);
+CREATE INDEX IF NOT EXISTS idx_event_location ON event (location_id);
 
 CREATE TABLE IF NOT EXISTS compilations (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -47,12 +84,17 @@ CREATE TABLE IF NOT EXISTS compilation_event (
     compilation_id BIGINT NOT NULL,
     event_id BIGINT NOT NULL,
     PRIMARY KEY (compilation_id, event_id),
+    -- Внешний ключ на event(id) невозможен: уникальный ключ секционированной event включает event_date
     CONSTRAINT fk_compilation_event_compilations
         FOREIGN KEY (compilation_id) REFERENCES compilations(id)
         ON UPDATE CASCADE
-        ON DELETE CASCADE,
-    CONSTRAINT fk_compilation_event_event
-        FOREIGN KEY (event_id) REFERENCES event(id)
-        ON UPDATE CASCADE
         ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- Обработанные сообщения о смене статусов заявок: защищает счётчик confirmed_requests от повторной доставки
+CREATE TABLE IF NOT EXISTS processed_request_message (
+    message_id UUID PRIMARY KEY,
+    processed_on TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+-- Очистка устаревших отметок (ProcessedRequestMessageCleanup)
+CREATE INDEX IF NOT EXISTS idx_processed_request_message_processed_on ON processed_request_message (processed_on);
\ No newline at end of file
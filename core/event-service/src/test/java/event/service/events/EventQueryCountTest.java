@@ -0,0 +1,137 @@
+package event.service.events;
+
+import event.service.compilation.dto.CompilationDto;
+import event.service.compilation.service.CompilationService;
+import event.service.events.services.PublicService;
+import event.service.feign.client.RequestClient;
+import event.service.feign.client.UserClient;
+import interaction.api.dto.event.EventFullDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import stats.client.AnalyzerClient;
+import stats.client.CollectorClient;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Защита от N+1 в публичной выдаче (EventSearchRepositoryImpl.searchPublic) и в подборках:
+ * число подготовленных Hibernate запросов не зависит от количества событий на странице.
+ * Ленивые category и location догружаются пачками (hibernate.default_batch_fetch_size).
+ */
+@SpringBootTest
+@Testcontainers
+class EventQueryCountTest {
+    // -- выборка событий + пачка категорий + пачка локаций
+    private static final long MAX_LISTING_STATEMENTS = 3;
+    // -- подборка + её события + пачка категорий + пачка локаций
+    private static final long MAX_COMPILATION_STATEMENTS = 4;
+
+    private static final int EVENTS = 100;
+    private static final int COMPILATION_EVENTS = 50;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    @Autowired
+    PublicService publicService;
+
+    @Autowired
+    CompilationService compilationService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    AnalyzerClient analyzerClient;
+
+    @MockBean
+    CollectorClient collectorClient;
+
+    @MockBean
+    RequestClient requestClient;
+
+    @MockBean
+    UserClient userClient;
+
+    Long compilationId;
+
+    @BeforeEach
+    void setUp() {
+        when(analyzerClient.getInteractionsCount(anyList())).thenAnswer(invocation -> Stream.empty());
+
+        jdbcTemplate.execute("TRUNCATE compilation_event, compilations, event, location, categories RESTART IDENTITY CASCADE");
+        // -- у каждого события своя категория и локация: без пакетной загрузки это был бы запрос на событие
+        Timestamp eventDate = Timestamp.valueOf(LocalDateTime.now().plusDays(10));
+        for (int i = 1; i <= EVENTS; i++) {
+            Long categoryId = jdbcTemplate.queryForObject(
+                    "INSERT INTO categories (name) VALUES (?) RETURNING id", Long.class, "category-" + i);
+            Long locationId = jdbcTemplate.queryForObject(
+                    "INSERT INTO location (lat, lon) VALUES (?, ?) RETURNING id", Long.class, 55.0 + i / 1000.0, 37.0);
+            jdbcTemplate.update("INSERT INTO event (annotation, category_id, description, event_date, title, " +
+                                "initiator_id, state, published_on, location_id, participant_limit) " +
+                                "VALUES (?, ?, ?, ?, ?, ?, 'PUBLISHED', NOW(), ?, 0)",
+                    "annotation " + i, categoryId, "description " + i, eventDate, "title " + i, (long) i, locationId);
+        }
+
+        compilationId = jdbcTemplate.queryForObject(
+                "INSERT INTO compilations (pinned, title) VALUES (true, 'compilation') RETURNING id", Long.class);
+        jdbcTemplate.update("INSERT INTO compilation_event (compilation_id, event_id) " +
+                            "SELECT ?, id FROM event ORDER BY id LIMIT ?", compilationId, COMPILATION_EVENTS);
+    }
+
+    @Test
+    void publicListingUsesConstantNumberOfStatements() {
+        long fullPage = countStatements(() -> listing(EVENTS));
+        long smallPage = countStatements(() -> listing(10));
+
+        assertThat(listing(EVENTS)).hasSize(EVENTS);
+        assertThat(fullPage).isLessThanOrEqualTo(MAX_LISTING_STATEMENTS);
+        assertThat(fullPage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void compilationUsesConstantNumberOfStatements() {
+        long statements = countStatements(() -> compilationService.getCompilationById(compilationId));
+
+        CompilationDto compilation = compilationService.getCompilationById(compilationId);
+        assertThat(compilation.getEvents()).hasSize(COMPILATION_EVENTS);
+        assertThat(statements).isLessThanOrEqualTo(MAX_COMPILATION_STATEMENTS);
+    }
+
+    private List<EventFullDto> listing(int size) {
+        return publicService.getEventsWithFilters(null, null, null, null, null, false, null, null,
+                null, 0, size, null).getContent();
+    }
+
+    private long countStatements(Supplier<?> action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.get();
+        long count = statistics.getPrepareStatementCount();
+        System.out.printf("Подготовлено запросов: %d%n", count);
+        return count;
+    }
+}
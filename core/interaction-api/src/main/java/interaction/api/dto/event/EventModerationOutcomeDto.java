@@ -0,0 +1,20 @@
+package interaction.api.dto.event;
+
+import interaction.api.enums.ModerationOutcome;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventModerationOutcomeDto {
+    Long eventId;
+    ModerationOutcome outcome;
+    String message;
+}
@@ -0,0 +1,30 @@
+package interaction.api.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import interaction.api.enums.StateActionAdmin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class EventModerationRequest {
+    @NotEmpty(message = "Список событий не может быть пустым")
+    @Size(max = 1000, message = "За один запрос можно модерировать не больше 1000 событий")
+    List<@NotNull Long> eventIds;
+
+    @NotNull(message = "Действие модерации должно быть указано")
+    @JsonProperty("stateAction")
+    StateActionAdmin state;
+}
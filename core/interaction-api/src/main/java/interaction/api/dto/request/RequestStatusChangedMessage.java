@@ -0,0 +1,37 @@
+package interaction.api.dto.request;
+
+import interaction.api.enums.RequestStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Сообщение о смене статуса заявки на участие, публикуемое request-service через outbox.
+ * messageId (UUID, генерируется при записи в outbox) уникален и используется получателем
+ * для отбрасывания повторных доставок.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RequestStatusChangedMessage {
+    UUID messageId;
+
+    Long requestId;
+
+    Long eventId;
+
+    // -- null для только что созданной заявки
+    RequestStatus previousStatus;
+
+    RequestStatus status;
+
+    LocalDateTime changedOn;
+}
@@ -0,0 +1,8 @@
+package interaction.api.enums;
+
+public enum ModerationOutcome {
+    APPLIED,
+    NOT_FOUND,
+    CONFLICT,
+    INVALID
+}
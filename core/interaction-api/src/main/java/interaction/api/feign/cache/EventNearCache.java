@@ -0,0 +1,45 @@
+package interaction.api.feign.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import interaction.api.dto.event.EventFullDto;
+import interaction.api.feign.contract.EventContract;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// -- Ближний кэш событий на стороне потребителя EventContract. Короткий TTL ограничивает устаревание,
+// -- а горячее событие перестаёт порождать запрос в event-service на каждую заявку или комментарий.
+// -- Ошибки Feign не кэшируются: исключение пробрасывается вызывающему как есть.
+// -- Возвращаемый DTO общий для всех вызывающих и не должен изменяться.
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventNearCache implements EventContract {
+    EventContract delegate;
+    Cache<Long, EventFullDto> events;
+
+    public EventNearCache(EventContract delegate, Duration ttl, long maximumSize) {
+        this.delegate = delegate;
+        this.events = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public EventFullDto getEvent(Long eventId) {
+        return events.get(eventId, delegate::getEvent);
+    }
+
+    // -- Недостающие в кэше события запрашиваются одним пакетным вызовом
+    @Override
+    public Map<Long, EventFullDto> getEvents(List<Long> ids) {
+        return events.getAll(ids, missing -> delegate.getEvents(List.copyOf(missing)));
+    }
+
+    public void invalidate(Long eventId) {
+        events.invalidate(eventId);
+    }
+}
@@ -4,8 +4,16 @@ import interaction.api.dto.event.EventFullDto;
 import jakarta.validation.constraints.Positive;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
 
 public interface EventContract {
     @GetMapping("/admin/events/{eventId}")
     EventFullDto getEvent(@PathVariable @Positive Long eventId);
+
+    // -- События по списку id одним запросом; отсутствующих id в ответе нет
+    @GetMapping("/admin/events/batch")
+    Map<Long, EventFullDto> getEvents(@RequestParam List<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package request.service.capacity;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import request.service.repository.EventCapacityRepository;
+
+// -- Атомарный учёт мест события вместо пары "COUNT подтверждённых, затем запись".
+// -- Все методы выполняются в транзакции смены статуса: занятое место откатывается вместе с заявкой.
+// -- track() нужно вызывать до изменения статусов в текущей транзакции, иначе начальный подсчёт их учтёт.
+// -- Лимит не хранится в счётчике, а передаётся в каждый вызов из свежего события: при регистрации оно
+// -- читается из event-service без кэша, при модерации event-service передаёт его из БД. Поэтому изменение
+// -- participantLimit действует сразу, начиная со следующей заявки.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventCapacityGuard {
+    EventCapacityRepository capacityRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void track(Long eventId) {
+        // -- Подсчёт по participation_request выполняется только при первом обращении к событию
+        if (!capacityRepository.existsById(eventId) && capacityRepository.initialize(eventId) > 0) {
+            log.debug("Создан счётчик мест для события id {}", eventId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long confirmed(Long eventId) {
+        return capacityRepository.findConfirmed(eventId).orElse(0L);
+    }
+
+    // -- limit == 0 означает отсутствие ограничения
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(Long eventId, long limit) {
+        if (limit == 0) {
+            capacityRepository.add(eventId, 1);
+            return true;
+        }
+        return capacityRepository.reserve(eventId, 1, limit) > 0;
+    }
+
+    // -- Занимает до requested мест и возвращает, сколько удалось занять; строка блокируется до конца транзакции
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserveUpTo(Long eventId, long limit, long requested) {
+        if (requested <= 0) {
+            return 0;
+        }
+        if (limit == 0) {
+            capacityRepository.add(eventId, requested);
+            return requested;
+        }
+
+        long confirmed = capacityRepository.lockConfirmed(eventId).orElse(0L);
+        long granted = Math.min(requested, Math.max(limit - confirmed, 0));
+        if (granted > 0) {
+            capacityRepository.add(eventId, granted);
+        }
+        return granted;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long eventId) {
+        capacityRepository.release(eventId, 1);
+    }
+}
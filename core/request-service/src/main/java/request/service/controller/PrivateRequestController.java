@@ -82,6 +82,12 @@ public class PrivateRequestController {
         return requestService.prepareConfirmedRequests(eventIds);
     }
 
+    @GetMapping("/users/requests/confirmed/count")
+    public Map<Long, Long> countConfirmedRequests(@RequestParam List<Long> eventIds) {
+        log.info("Получен список eventIds {} для подсчёта подтверждённых заявок", eventIds);
+        return requestService.countConfirmedRequests(eventIds);
+    }
+
     @GetMapping("/users/requests/confirmed/{eventId}/{userId}")
     Boolean checkRegistration(@PathVariable Long eventId, @PathVariable Long userId) {
         log.info("Проверка регистрации пользователя");
@@ -0,0 +1,30 @@
+package request.service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+// -- Счётчик подтверждённых заявок события. Меняется только условными UPDATE в EventCapacityRepository,
+// -- строка события служит точкой сериализации конкурентных подтверждений.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "event_capacity")
+public class EventCapacity {
+    @Id
+    @Column(name = "event_id")
+    Long eventId;
+
+    @Column(name = "confirmed", nullable = false)
+    Long confirmed;
+}
@@ -0,0 +1,58 @@
+package request.service.model;
+
+import interaction.api.enums.RequestStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// -- Запись transactional outbox: сохраняется в одной транзакции со сменой статуса заявки
+// -- и удаляется после успешной отправки в Kafka.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "request_outbox")
+public class OutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    // -- Ключ дедупликации у получателя. IDENTITY-id не годится: после пересоздания схемы он снова начинается с 1
+    @Column(name = "message_id", nullable = false, unique = true, updatable = false)
+    UUID messageId;
+
+    @Column(name = "request_id", nullable = false)
+    Long requestId;
+
+    @Column(name = "event_id", nullable = false)
+    Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 12)
+    RequestStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 12)
+    RequestStatus status;
+
+    @Column(name = "created", nullable = false)
+    LocalDateTime created;
+}
@@ -0,0 +1,55 @@
+package request.service.outbox;
+
+import interaction.api.dto.request.RequestStatusChangedMessage;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+@Getter
+@SuppressWarnings("unused")
+public class OutboxKafkaConfig {
+    @Value("${spring.kafka.bootstrap-servers}")
+    String bootstrapServers;
+
+    @Value("${spring.kafka.producer.topic.request-status}")
+    String requestStatusTopic;
+
+    @Bean
+    public ProducerFactory<String, RequestStatusChangedMessage> requestStatusProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        // -- запись из outbox удаляется только после подтверждения всеми репликами
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+
+        log.debug("Создание ProducerFactory для outbox с конфигурацией: {}", configProps);
+
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, RequestStatusChangedMessage> requestStatusKafkaTemplate() {
+        log.info("Создание KafkaTemplate для отправки смены статусов заявок в топик: {}", requestStatusTopic);
+
+        return new KafkaTemplate<>(requestStatusProducerFactory());
+    }
+}
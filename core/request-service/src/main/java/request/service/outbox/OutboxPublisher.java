@@ -0,0 +1,76 @@
+package request.service.outbox;
+
+import interaction.api.dto.request.RequestStatusChangedMessage;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import request.service.model.OutboxMessage;
+import request.service.repository.OutboxRepository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переносит записи outbox в Kafka. Ключ сообщения — id события, поэтому все смены статусов
+ * одного события попадают в одну партицию и читаются по порядку. Доставка «хотя бы один раз»:
+ * если отправка не подтверждена, транзакция откатывается и порция будет отправлена повторно.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class OutboxPublisher {
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    OutboxRepository outboxRepository;
+    KafkaTemplate<String, RequestStatusChangedMessage> requestStatusKafkaTemplate;
+    OutboxKafkaConfig config;
+
+    @NonFinal
+    @Value("${request.outbox.batch-size:500}")
+    int batchSize;
+
+    @Scheduled(fixedDelayString = "${request.outbox.poll-interval:500}")
+    @Transactional
+    public void publishPending() {
+        List<OutboxMessage> batch = outboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(message -> requestStatusKafkaTemplate.send(config.getRequestStatusTopic(),
+                        String.valueOf(message.getEventId()), toMessage(message)))
+                .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(sends).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("Не удалось отправить {} сообщений outbox, повтор при следующем опросе: {}",
+                    batch.size(), e.getMessage());
+            throw new IllegalStateException("Отправка сообщений outbox не подтверждена", e);
+        }
+
+        outboxRepository.deleteAllInBatch(batch);
+        log.debug("Отправлено {} сообщений о смене статусов заявок", batch.size());
+    }
+
+    private RequestStatusChangedMessage toMessage(OutboxMessage message) {
+        return RequestStatusChangedMessage.builder()
+                .messageId(message.getMessageId())
+                .requestId(message.getRequestId())
+                .eventId(message.getEventId())
+                .previousStatus(message.getPreviousStatus())
+                .status(message.getStatus())
+                .changedOn(message.getCreated())
+                .build();
+    }
+}
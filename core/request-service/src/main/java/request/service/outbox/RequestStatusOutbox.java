@@ -0,0 +1,40 @@
+package request.service.outbox;
+
+import interaction.api.enums.RequestStatus;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import request.service.model.OutboxMessage;
+import request.service.model.ParticipationRequest;
+import request.service.repository.OutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RequestStatusOutbox {
+    OutboxRepository outboxRepository;
+
+    // -- Модерация пачкой пишет в outbox тем же SQL-запросом (RequestRepository.moderatePending)
+    // -- Вызывается только внутри транзакции, меняющей статус: запись в outbox фиксируется вместе с ней
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(ParticipationRequest request, RequestStatus previousStatus) {
+        if (request.getStatus() == previousStatus) {
+            return;
+        }
+
+        outboxRepository.save(OutboxMessage.builder()
+                .messageId(UUID.randomUUID())
+                .requestId(request.getId())
+                .eventId(request.getEventId())
+                .previousStatus(previousStatus)
+                .status(request.getStatus())
+                .created(LocalDateTime.now())
+                .build());
+    }
+}
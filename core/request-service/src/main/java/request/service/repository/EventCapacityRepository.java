@@ -0,0 +1,43 @@
+package request.service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import request.service.model.EventCapacity;
+
+import java.util.Optional;
+
+public interface EventCapacityRepository extends JpaRepository<EventCapacity, Long> {
+    // -- Создаёт счётчик по фактическим подтверждённым заявкам; при гонке вторая вставка ничего не делает
+    @Modifying
+    @Query(value = "INSERT INTO event_capacity (event_id, confirmed) " +
+                   "SELECT :eventId, COUNT(*) FROM participation_request " +
+                   "WHERE event_id = :eventId AND status = 'CONFIRMED' " +
+                   "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int initialize(@Param("eventId") Long eventId);
+
+    // -- Занимает места только если их хватает: проверка и запись выполняются одним оператором
+    @Modifying
+    @Query(value = "UPDATE event_capacity SET confirmed = confirmed + :count " +
+                   "WHERE event_id = :eventId AND confirmed + :count <= :limit", nativeQuery = true)
+    int reserve(@Param("eventId") Long eventId, @Param("count") long count, @Param("limit") long limit);
+
+    // -- Для событий без лимита счётчик ведётся без условия, чтобы остаться верным при появлении лимита
+    @Modifying
+    @Query(value = "UPDATE event_capacity SET confirmed = confirmed + :count WHERE event_id = :eventId",
+            nativeQuery = true)
+    int add(@Param("eventId") Long eventId, @Param("count") long count);
+
+    @Modifying
+    @Query(value = "UPDATE event_capacity SET confirmed = GREATEST(confirmed - :count, 0) WHERE event_id = :eventId",
+            nativeQuery = true)
+    int release(@Param("eventId") Long eventId, @Param("count") long count);
+
+    @Query(value = "SELECT confirmed FROM event_capacity WHERE event_id = :eventId", nativeQuery = true)
+    Optional<Long> findConfirmed(@Param("eventId") Long eventId);
+
+    // -- Блокирует строку счётчика до конца транзакции (модерация пачкой)
+    @Query(value = "SELECT confirmed FROM event_capacity WHERE event_id = :eventId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockConfirmed(@Param("eventId") Long eventId);
+}
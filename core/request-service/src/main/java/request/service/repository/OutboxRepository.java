@@ -0,0 +1,14 @@
+package request.service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import request.service.model.OutboxMessage;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+    // -- Блокирует очередную порцию записей; SKIP LOCKED позволяет нескольким экземплярам забирать разные порции
+    @Query(value = "SELECT * FROM request_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxMessage> lockNextBatch(@Param("limit") int limit);
+}
@@ -5,6 +5,8 @@ import interaction.api.enums.RequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,4 +26,31 @@ public interface RequestRepository extends JpaRepository<ParticipationRequest, L
 
     @Query("SELECT r FROM ParticipationRequest r WHERE r.eventId IN :eventIds AND r.status = :status")
     List<ParticipationRequest> findConfirmedRequestsByEventIds(@Param("eventIds") List<Long> eventIds, @Param("status") RequestStatus status);
+
+    // -- Количество заявок с заданным статусом по каждому событию; использует индекс (event_id, status)
+    @Query("SELECT r.eventId, COUNT(r) FROM ParticipationRequest r " +
+           "WHERE r.eventId IN :eventIds AND r.status = :status GROUP BY r.eventId")
+    List<Object[]> countByEventIdsAndStatus(@Param("eventIds") List<Long> eventIds, @Param("status") RequestStatus status);
+
+    // -- Модерация пачкой за один запрос: старейшие granted заявок в статусе PENDING подтверждаются,
+    // -- остальные отклоняются; смены статусов сразу пишутся в request_outbox (см. RequestStatusOutbox).
+    // -- Запрос изменяет данные, но возвращает строки, поэтому идёт без @Modifying; MANDATORY не даёт выполнить
+    // -- его в read-only транзакции репозитория по умолчанию — только внутри транзакции модерации.
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "WITH target AS (" +
+                   "    SELECT id, ROW_NUMBER() OVER (ORDER BY created, id) AS rn FROM participation_request " +
+                   "    WHERE id IN (:requestIds) AND event_id = :eventId AND status = 'PENDING'" +
+                   "), updated AS (" +
+                   "    UPDATE participation_request r " +
+                   "    SET status = CASE WHEN t.rn <= :granted THEN 'CONFIRMED' ELSE 'REJECTED' END " +
+                   "    FROM target t WHERE r.id = t.id " +
+                   "    RETURNING r.id, r.created, r.event_id, r.requester_id, r.status" +
+                   "), outbox AS (" +
+                   "    INSERT INTO request_outbox (message_id, request_id, event_id, previous_status, status, created) " +
+                   "    SELECT gen_random_uuid(), id, event_id, 'PENDING', status, NOW() FROM updated" +
+                   ") " +
+                   "SELECT * FROM updated ORDER BY created, id", nativeQuery = true)
+    List<ParticipationRequest> moderatePending(@Param("requestIds") List<Long> requestIds,
+                                               @Param("eventId") Long eventId,
+                                               @Param("granted") long granted);
 }
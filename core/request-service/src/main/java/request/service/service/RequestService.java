@@ -21,5 +21,7 @@ public interface RequestService {
 
     Map<Long, List<ParticipationRequestDto>> prepareConfirmedRequests(List<Long> eventIds);
 
+    Map<Long, Long> countConfirmedRequests(List<Long> eventIds);
+
     Boolean checkRegistration(Long eventId, Long userId);
 }
@@ -20,10 +20,12 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import request.service.capacity.EventCapacityGuard;
 import request.service.feign.client.EventClient;
 import request.service.feign.client.UserClient;
 import request.service.mapper.RequestMapper;
 import request.service.model.ParticipationRequest;
+import request.service.outbox.RequestStatusOutbox;
 import request.service.repository.RequestRepository;
 import stats.client.CollectorClient;
 
@@ -32,11 +34,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -51,6 +51,8 @@ public class RequestServiceImpl implements RequestService {
     EventClient eventClient;
     UserClient userClient;
     CollectorClient collectorClient;
+    RequestStatusOutbox requestStatusOutbox;
+    EventCapacityGuard eventCapacityGuard;
 
     @Transactional(readOnly = true)
     @Override
@@ -67,7 +69,9 @@ public class RequestServiceImpl implements RequestService {
     @Override
     public ParticipationRequestDto createRequest(Long requesterId, Long eventId) {
         collectorClient.collectUserAction(requesterId, eventId, "ACTION_REGISTER", Instant.now());
-        return requestMapper.toParticipationRequestDto(requestRepository.save(validateRequest(requesterId, eventId)));
+        ParticipationRequest request = requestRepository.save(validateRequest(requesterId, eventId));
+        requestStatusOutbox.recordStatusChange(request, null);
+        return requestMapper.toParticipationRequestDto(request);
     }
 
     @Override
@@ -75,7 +79,13 @@ public class RequestServiceImpl implements RequestService {
         validateUserExist(requesterId);
         ParticipationRequest participationRequest = validateRequestExist(requesterId, requestId);
 
+        RequestStatus previousStatus = participationRequest.getStatus();
+        if (previousStatus == RequestStatus.CONFIRMED) {
+            eventCapacityGuard.track(participationRequest.getEventId());
+            eventCapacityGuard.release(participationRequest.getEventId());
+        }
         participationRequest.setStatus(RequestStatus.CANCELED);
+        requestStatusOutbox.recordStatusChange(participationRequest, previousStatus);
         return requestMapper.toParticipationRequestDto(participationRequest);
     }
 
@@ -121,68 +131,41 @@ public class RequestServiceImpl implements RequestService {
             throw new BadRequestException("Статус должен быть REJECTED или CONFIRMED");
         }
 
-        if (requestRepository.countByIdInAndEventId(requestIds, eventId) != requestIds.size()) {
-            log.error("Некоторые запросы не соответствуют событию с id: {}", eventId);
-            throw new ConflictException(String.format("Не все запросы соответствуют событию с id= %d", eventId));
-        }
-
-        if (requestRepository
-                    .countByEventIdAndStatusEquals(eventId, RequestStatus.CONFIRMED) >= limit) {
+        eventCapacityGuard.track(eventId);
+        if (eventCapacityGuard.confirmed(eventId) >= limit) {
             log.error("Достигнут лимит заявок на событие с id: {}", eventId);
             throw new ConflictException(String.format("Уже достигнут лимит предела заявок на событие с id= %d",
                     eventId));
         }
 
-        LinkedHashMap<Long, ParticipationRequest> requestsMap = requestRepository.findAllByIdIn(requestIds)
-                .stream()
-                .sorted(Comparator.comparing(ParticipationRequest::getCreated))
-                .collect(Collectors.toMap(
-                        ParticipationRequest::getId,
-                        Function.identity(),
-                        (existing, replacement) -> existing,
-                        LinkedHashMap::new
-                ));
-
-        if (requestsMap.values().stream().anyMatch(request -> request.getStatus() != RequestStatus.PENDING)) {
+        // -- Места занимаются под блокировкой счётчика: параллельная модерация не превысит лимит
+        long granted = status == RequestStatus.CONFIRMED
+                ? eventCapacityGuard.reserveUpTo(eventId, limit, requestIds.size())
+                : 0;
+
+        List<ParticipationRequest> moderated = requestRepository.moderatePending(requestIds, eventId, granted);
+
+        // -- Каждая заявка обновляется ровно один раз; расхождение откатывает транзакцию вместе с занятыми местами
+        if (moderated.size() != requestIds.size()) {
+            if (requestRepository.countByIdInAndEventId(requestIds, eventId) != requestIds.size()) {
+                log.error("Некоторые запросы не соответствуют событию с id: {}", eventId);
+                throw new ConflictException(String.format("Не все запросы соответствуют событию с id= %d", eventId));
+            }
             log.error("Некоторые запросы имеют статус, отличный от PENDING");
             throw new ConflictException("У всех запросов должен быть статус: PENDING");
         }
 
-        List<ParticipationRequestDto> rejectedRequests = new ArrayList<>();
-        List<ParticipationRequestDto> confirmedRequests = new ArrayList<>();
-
-        long confirmedCount = limit -
-                              requestRepository.countByEventIdAndStatusEquals(eventId, RequestStatus.CONFIRMED);
-
-        requestsMap.values().forEach(request -> {
-            if (status == RequestStatus.REJECTED) {
-                request.setStatus(RequestStatus.REJECTED);
-                rejectedRequests.add(requestMapper.toParticipationRequestDto(request));
-                log.info("Заявка id {} отклонена", request.getId());
+        moderated.forEach(request -> {
+            ParticipationRequestDto dto = requestMapper.toParticipationRequestDto(request);
+            if (request.getStatus() == RequestStatus.CONFIRMED) {
+                result.getConfirmedRequests().add(dto);
             } else {
-                if (confirmedRequests.size() < confirmedCount) {
-                    request.setStatus(RequestStatus.CONFIRMED);
-                    confirmedRequests.add(requestMapper.toParticipationRequestDto(request));
-                    log.info("Заявка id {} подтверждена", request.getId());
-                } else {
-                    request.setStatus(RequestStatus.REJECTED);
-                    rejectedRequests.add(requestMapper.toParticipationRequestDto(request));
-                    log.info("Заявка id {} отклонена из-за превышения лимита", request.getId());
-                }
+                result.getRejectedRequests().add(dto);
             }
         });
 
-        result.getConfirmedRequests().addAll(confirmedRequests);
-        result.getRejectedRequests().addAll(rejectedRequests);
-
-        log.info("Сохранение статусов запросов");
-
-        requestsMap.values().forEach(request ->
-                log.info("Request id: {} New Status: {}", request.getId(), request.getStatus())
-        );
-
-        requestRepository.saveAll(requestsMap.values());
-
+        log.info("Событие id {}: подтверждено {}, отклонено {} заявок", eventId,
+                result.getConfirmedRequests().size(), result.getRejectedRequests().size());
         return result;
     }
 
@@ -207,6 +190,18 @@ public class RequestServiceImpl implements RequestService {
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countConfirmedRequests(List<Long> eventIds) {
+        log.info("Считаем подтверждённые запросы для {} событий", eventIds.size());
+        if (eventIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return requestRepository.countByEventIdsAndStatus(eventIds, RequestStatus.CONFIRMED).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Boolean checkRegistration(Long eventId, Long userId) {
@@ -231,8 +226,8 @@ public class RequestServiceImpl implements RequestService {
 
         long limit = event.getParticipantLimit();
 
-        if (limit > 0 &&
-            requestRepository.countByEventIdAndStatusEquals(eventId, RequestStatus.CONFIRMED) >= limit) {
+        eventCapacityGuard.track(eventId);
+        if (limit > 0 && eventCapacityGuard.confirmed(eventId) >= limit) {
             throw new ConflictException("Достигнут лимит запросов на участие");
         }
 
@@ -242,6 +237,10 @@ public class RequestServiceImpl implements RequestService {
         participationRequest.setCreated(LocalDateTime.now());
 
         if (!event.getRequestModeration() || event.getParticipantLimit() == 0) {
+            // -- Проверка выше лишь отсекает заведомо полные события; гонку за последнее место решает tryReserve
+            if (!eventCapacityGuard.tryReserve(eventId, limit)) {
+                throw new ConflictException("Достигнут лимит запросов на участие");
+            }
             participationRequest.setStatus(RequestStatus.CONFIRMED);
         } else {
             participationRequest.setStatus(RequestStatus.PENDING);
@@ -265,6 +264,8 @@ public class RequestServiceImpl implements RequestService {
         }
     }
 
+    // -- Событие читается напрямую из event-service, без ближнего кэша: по нему решается допуск заявки
+    // -- (статус PUBLISHED, лимит участников, модерация), и устаревший снимок здесь недопустим.
     private EventFullDto validateEventExist(Long eventId) {
         try {
             return eventClient.getEvent(eventId);
@@ -0,0 +1,231 @@
+package request.service.service;
+
+import interaction.api.dto.event.EventFullDto;
+import interaction.api.dto.request.EventRequestStatusUpdateRequestDto;
+import interaction.api.dto.request.EventRequestStatusUpdateResultDto;
+import interaction.api.dto.request.ParticipationRequestDto;
+import interaction.api.dto.request.RequestStatusUpdateDto;
+import interaction.api.enums.EventState;
+import interaction.api.enums.RequestStatus;
+import interaction.api.exception.ConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import request.service.feign.client.EventClient;
+import request.service.feign.client.UserClient;
+import request.service.outbox.OutboxPublisher;
+import stats.client.CollectorClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Нагрузочная проверка учёта мест (EventCapacityGuard + RequestRepository.moderatePending) на настоящем PostgreSQL:
+ * тысячи параллельных регистраций и подтверждений по одному событию не должны превысить participantLimit,
+ * потерять заявку или посчитать её дважды. Пропускная способность выводится в лог теста.
+ */
+@SpringBootTest
+@Testcontainers
+class ParticipantLimitConcurrencyTest {
+    private static final int THREADS = 64;
+    private static final long INITIATOR_ID = 1L;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    @Autowired
+    RequestService requestService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    EventClient eventClient;
+
+    @MockBean
+    UserClient userClient;
+
+    @MockBean
+    CollectorClient collectorClient;
+
+    // -- Отправка outbox в Kafka здесь не проверяется
+    @MockBean
+    OutboxPublisher outboxPublisher;
+
+    @Test
+    void concurrentAutoConfirmedRegistrationsNeverExceedLimit() throws Exception {
+        long eventId = 100L;
+        long limit = 150;
+        int registrations = 3000;
+        EventFullDto event = event(eventId, limit, false);
+        when(eventClient.getEvent(eventId)).thenReturn(event);
+
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger rejectedByLimit = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (long userId = 1_000; userId < 1_000 + registrations; userId++) {
+            long requesterId = userId;
+            tasks.add(() -> {
+                try {
+                    ParticipationRequestDto created = requestService.createRequest(requesterId, eventId);
+                    assertThat(created.getStatus()).isEqualTo(RequestStatus.CONFIRMED);
+                    confirmed.incrementAndGet();
+                } catch (ConflictException e) {
+                    rejectedByLimit.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        runConcurrently("auto-confirm registrations", tasks);
+
+        assertThat(confirmed.get()).isEqualTo(limit);
+        assertThat(confirmed.get() + rejectedByLimit.get()).isEqualTo(registrations);
+        assertThat(countRequests(eventId, RequestStatus.CONFIRMED)).isEqualTo(limit);
+        assertThat(countRequests(eventId, null)).isEqualTo(limit);
+        assertThat(capacityCounter(eventId)).isEqualTo(limit);
+        // -- По одной записи outbox на каждую созданную заявку, отклонённые откатились целиком
+        assertThat(countOutbox(eventId)).isEqualTo(limit);
+    }
+
+    @Test
+    void concurrentRegistrationsAndModerationsConfirmExactlyLimit() throws Exception {
+        long eventId = 200L;
+        long limit = 250;
+        int preRegistered = 2000;
+        int concurrentRegistrations = 2000;
+        int moderationBatch = 10;
+        EventFullDto event = event(eventId, limit, true);
+        when(eventClient.getEvent(eventId)).thenReturn(event);
+
+        List<Long> pendingIds = new ArrayList<>();
+        for (long userId = 10_000; userId < 10_000 + preRegistered; userId++) {
+            pendingIds.add(requestService.createRequest(userId, eventId).getId());
+        }
+        Collections.shuffle(pendingIds);
+
+        ConcurrentLinkedQueue<EventRequestStatusUpdateResultDto> results = new ConcurrentLinkedQueue<>();
+        AtomicInteger moderationsRejectedByLimit = new AtomicInteger();
+        AtomicInteger registered = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+
+        for (int from = 0; from < pendingIds.size(); from += moderationBatch) {
+            List<Long> batch = pendingIds.subList(from, Math.min(from + moderationBatch, pendingIds.size()));
+            RequestStatusUpdateDto update = RequestStatusUpdateDto.builder()
+                    .event(event)
+                    .updateRequest(EventRequestStatusUpdateRequestDto.builder()
+                            .requestIds(List.copyOf(batch))
+                            .status(RequestStatus.CONFIRMED)
+                            .build())
+                    .build();
+            tasks.add(() -> {
+                try {
+                    results.add(requestService.updateParticipationRequestsStatus(INITIATOR_ID, eventId, update));
+                } catch (ConflictException e) {
+                    moderationsRejectedByLimit.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        for (long userId = 20_000; userId < 20_000 + concurrentRegistrations; userId++) {
+            long requesterId = userId;
+            tasks.add(() -> {
+                requestService.createRequest(requesterId, eventId);
+                registered.incrementAndGet();
+                return null;
+            });
+        }
+        Collections.shuffle(tasks);
+
+        runConcurrently("registrations + moderations", tasks);
+
+        long confirmedInResults = results.stream().mapToLong(r -> r.getConfirmedRequests().size()).sum();
+        long rejectedInResults = results.stream().mapToLong(r -> r.getRejectedRequests().size()).sum();
+        long moderated = confirmedInResults + rejectedInResults;
+
+        assertThat(registered.get()).isEqualTo(concurrentRegistrations);
+        assertThat(confirmedInResults).isEqualTo(limit);
+        assertThat(countRequests(eventId, RequestStatus.CONFIRMED)).isEqualTo(limit);
+        assertThat(countRequests(eventId, RequestStatus.REJECTED)).isEqualTo(rejectedInResults);
+        assertThat(countRequests(eventId, null)).isEqualTo(preRegistered + concurrentRegistrations);
+        assertThat(capacityCounter(eventId)).isEqualTo(limit);
+        // -- Каждая пачка либо промодерирована целиком, либо отклонена по лимиту и оставила заявки в PENDING
+        assertThat(moderated + (long) moderationsRejectedByLimit.get() * moderationBatch).isEqualTo(preRegistered);
+        // -- Одна запись outbox на создание заявки и одна на каждую смену статуса — без потерь и дублей
+        assertThat(countOutbox(eventId)).isEqualTo(preRegistered + concurrentRegistrations + moderated);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT request_id FROM request_outbox WHERE event_id = ? AND previous_status = 'PENDING' " +
+                "GROUP BY request_id HAVING COUNT(*) > 1) d", Long.class, eventId)).isZero();
+    }
+
+    private void runConcurrently(String name, List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<Void> future : futures) {
+                // -- Любая ошибка, кроме ожидаемого ConflictException, проваливает тест
+                future.get(5, TimeUnit.MINUTES);
+            }
+            double seconds = (System.nanoTime() - startedAt) / 1e9;
+            System.out.printf("[%s] %d операций в %d потоков за %.2f с: %.0f оп/с%n",
+                    name, tasks.size(), THREADS, seconds, tasks.size() / seconds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private EventFullDto event(long eventId, long limit, boolean requestModeration) {
+        return EventFullDto.builder()
+                .id(eventId)
+                .initiator(INITIATOR_ID)
+                .state(EventState.PUBLISHED)
+                .participantLimit(limit)
+                .requestModeration(requestModeration)
+                .build();
+    }
+
+    private long countRequests(long eventId, RequestStatus status) {
+        return status == null
+                ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM participation_request WHERE event_id = ?",
+                        Long.class, eventId)
+                : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM participation_request WHERE event_id = ? AND status = ?",
+                        Long.class, eventId, status.name());
+    }
+
+    private long capacityCounter(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT confirmed FROM event_capacity WHERE event_id = ?", Long.class, eventId);
+    }
+
+    private long countOutbox(long eventId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM request_outbox WHERE event_id = ?", Long.class, eventId);
+    }
+}
@@ -0,0 +1,91 @@
+package analyzer.ann;
+
+import analyzer.config.AnnProperties;
+import analyzer.model.Recommendation;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Подбор кандидатов в рекомендации через приближённый поиск ближайших соседей.
+ * Индекс периодически перестраивается целиком в фоне и подменяется атомарно;
+ * пока он не построен (или режим выключен), сервис использует запрос к similarities.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AnnCandidateIndex {
+    final AnnProperties properties;
+    final EventEmbeddingTrainer trainer;
+    volatile HnswIndex index;
+
+    @Scheduled(initialDelayString = "${analyzer.ann.initial-delay:PT30S}",
+            fixedDelayString = "${analyzer.ann.rebuild-interval:PT1H}")
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            EventEmbeddings embeddings = trainer.train(properties.getRank(), properties.getIterations());
+            HnswIndex rebuilt = HnswIndex.build(embeddings, properties.getMaxConnections(),
+                    properties.getEfConstruction());
+            index = rebuilt;
+            log.info("Индекс ANN перестроен за {} мс: {} событий",
+                    System.currentTimeMillis() - started, rebuilt.size());
+        } catch (Exception e) {
+            log.error("Не удалось перестроить индекс ANN, используется прежний", e);
+        }
+    }
+
+    // -- Текущий построенный индекс, если режим включён
+    public Optional<HnswIndex> currentIndex() {
+        return properties.isEnabled() ? Optional.ofNullable(index) : Optional.empty();
+    }
+
+    public boolean isVectorRerank() {
+        return properties.getRerank() == AnnProperties.Rerank.VECTOR;
+    }
+
+    /**
+     * Аналог findTopSimilarToSetExcluding: для каждого исходного события ищет ближайших соседей
+     * в индексе, сходство кандидата — максимум по исходным событиям.
+     *
+     * @return пусто, если режим выключен или индекс ещё не построен
+     */
+    public Optional<Set<Long>> findCandidates(Collection<Long> sourceIds, Set<Long> excludeIds, int limit) {
+        HnswIndex current = index;
+        if (!properties.isEnabled() || current == null) {
+            return Optional.empty();
+        }
+
+        // -- часть найденных соседей пользователь уже видел, поэтому запрашиваем с запасом
+        int k = limit + Math.min(excludeIds.size(), properties.getEfSearch());
+        Map<Long, Double> bestScores = new HashMap<>();
+        for (Long sourceId : sourceIds) {
+            for (Recommendation neighbour : current.searchSimilar(sourceId, k, properties.getEfSearch())) {
+                if (!excludeIds.contains(neighbour.getEventId())) {
+                    bestScores.merge(neighbour.getEventId(), neighbour.getScore(), Math::max);
+                }
+            }
+        }
+
+        List<Long> candidates = bestScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        return Optional.of(Set.copyOf(candidates));
+    }
+}
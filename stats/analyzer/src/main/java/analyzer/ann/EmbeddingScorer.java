@@ -0,0 +1,70 @@
+package analyzer.ann;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+
+/**
+ * Пакетный расчёт скалярных произведений и косинусов одного вектора-запроса с блоком эмбеддингов.
+ * Блок — плоский массив {@code count} векторов размерности {@code dimension}, записанных подряд.
+ * Реализация на Vector API лежит в {@code src/simd/java} и попадает в сборку только с профилем {@code simd}
+ * ({@code mvn -Psimd}): инкубаторный модуль не участвует в обычной компиляции, и она остаётся без предупреждений.
+ * Она используется, если класс есть в сборке и JVM запущена с {@code --add-modules jdk.incubator.vector},
+ * иначе — обычный скалярный цикл.
+ */
+@Slf4j
+public abstract class EmbeddingScorer {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String SIMD_SCORER = "analyzer.ann.SimdEmbeddingScorer";
+    private static final EmbeddingScorer INSTANCE = create();
+
+    public static EmbeddingScorer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Записывает в {@code out[i]} скалярное произведение {@code query} и i-го вектора блока.
+     */
+    public abstract void dot(float[] query, float[] block, int dimension, int count, float[] out);
+
+    /**
+     * Записывает в {@code out[i]} косинус между {@code query} и i-м вектором блока;
+     * для нулевых векторов — 0.
+     */
+    public void cosine(float[] query, float[] block, int dimension, int count, float[] out) {
+        dot(query, block, dimension, count, out);
+        float queryNorm = (float) Math.sqrt(selfDot(query, 0, dimension));
+        for (int i = 0; i < count; i++) {
+            float norm = (float) Math.sqrt(selfDot(block, i * dimension, dimension));
+            out[i] = queryNorm == 0f || norm == 0f ? 0f : out[i] / (queryNorm * norm);
+        }
+    }
+
+    protected abstract float selfDot(float[] vector, int offset, int dimension);
+
+    static EmbeddingScorer scalar() {
+        return new ScalarEmbeddingScorer();
+    }
+
+    // -- Пусто, если сборка без профиля simd или модуль jdk.incubator.vector не подключён
+    static Optional<EmbeddingScorer> simd() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("Модуль {} не подключён", VECTOR_MODULE);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((EmbeddingScorer) Class.forName(SIMD_SCORER).getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            log.info("Сборка без профиля simd: реализации на Vector API нет");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Vector API недоступен", e);
+        }
+        return Optional.empty();
+    }
+
+    private static EmbeddingScorer create() {
+        EmbeddingScorer scorer = simd().orElseGet(EmbeddingScorer::scalar);
+        log.info("Скоринг эмбеддингов: {}", scorer);
+        return scorer;
+    }
+}
@@ -0,0 +1,167 @@
+package analyzer.ann;
+
+import analyzer.repository.UserActionRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Обучает эмбеддинги событий по матрице пользователь × событие из user_actions.
+ * Используется усечённое SVD, посчитанное блочным степенным методом прямо в процессе:
+ * V ← orth(Aᵀ·A·V). Эмбеддинг события — строка V, умноженная на сингулярные числа
+ * и нормированная, так что скалярное произведение двух эмбеддингов приближает косинусное
+ * сходство столбцов матрицы — ту же меру, что считает aggregator.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventEmbeddingTrainer {
+    private static final long SEED = 42L;
+
+    UserActionRepository userActionRepository;
+
+    @Transactional(readOnly = true)
+    public EventEmbeddings train(int rank, int iterations) {
+        Map<Long, Integer> userIndex = new HashMap<>();
+        Map<Long, Integer> eventIndex = new HashMap<>();
+        SparseMatrix matrix = new SparseMatrix();
+
+        try (Stream<Object[]> rows = userActionRepository.streamAllWeights()) {
+            rows.forEach(row -> matrix.add(
+                    userIndex.computeIfAbsent((Long) row[0], id -> userIndex.size()),
+                    eventIndex.computeIfAbsent((Long) row[1], id -> eventIndex.size()),
+                    ((Double) row[2]).floatValue()));
+        }
+
+        int users = userIndex.size();
+        int events = eventIndex.size();
+        int k = Math.min(rank, events);
+        log.info("Обучение эмбеддингов: {} пользователей, {} событий, {} взаимодействий, ранг {}",
+                users, events, matrix.size, k);
+
+        long[] eventIds = new long[events];
+        eventIndex.forEach((eventId, index) -> eventIds[index] = eventId);
+        if (k == 0) {
+            return new EventEmbeddings(eventIds, new float[0], 0);
+        }
+
+        Random random = new Random(SEED);
+        float[] v = new float[events * k];
+        for (int i = 0; i < v.length; i++) {
+            v[i] = (float) random.nextGaussian();
+        }
+        orthonormalizeColumns(v, events, k);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            v = matrix.multiplyTransposed(matrix.multiply(v, users, k), events, k);
+            orthonormalizeColumns(v, events, k);
+        }
+
+        // -- сингулярные числа: нормы столбцов A·V
+        float[] av = matrix.multiply(v, users, k);
+        double[] sigma = new double[k];
+        for (int u = 0; u < users; u++) {
+            for (int j = 0; j < k; j++) {
+                sigma[j] += (double) av[u * k + j] * av[u * k + j];
+            }
+        }
+        for (int j = 0; j < k; j++) {
+            sigma[j] = Math.sqrt(sigma[j]);
+        }
+
+        for (int e = 0; e < events; e++) {
+            double norm = 0.0;
+            for (int j = 0; j < k; j++) {
+                v[e * k + j] *= (float) sigma[j];
+                norm += (double) v[e * k + j] * v[e * k + j];
+            }
+            if (norm > 0) {
+                float inverse = (float) (1.0 / Math.sqrt(norm));
+                for (int j = 0; j < k; j++) {
+                    v[e * k + j] *= inverse;
+                }
+            }
+        }
+        return new EventEmbeddings(eventIds, v, k);
+    }
+
+    // -- Модифицированный Грам-Шмидт по столбцам матрицы rows × cols, хранящейся построчно
+    private static void orthonormalizeColumns(float[] matrix, int rows, int cols) {
+        for (int j = 0; j < cols; j++) {
+            for (int p = 0; p < j; p++) {
+                double dot = 0.0;
+                for (int i = 0; i < rows; i++) {
+                    dot += (double) matrix[i * cols + j] * matrix[i * cols + p];
+                }
+                for (int i = 0; i < rows; i++) {
+                    matrix[i * cols + j] -= (float) (dot * matrix[i * cols + p]);
+                }
+            }
+            double norm = 0.0;
+            for (int i = 0; i < rows; i++) {
+                norm += (double) matrix[i * cols + j] * matrix[i * cols + j];
+            }
+            // -- вырожденный столбец (ранг матрицы меньше k) обнуляется
+            float inverse = norm > 1e-12 ? (float) (1.0 / Math.sqrt(norm)) : 0f;
+            for (int i = 0; i < rows; i++) {
+                matrix[i * cols + j] *= inverse;
+            }
+        }
+    }
+
+    // -- Разреженная матрица в координатном формате
+    private static class SparseMatrix {
+        int[] rows = new int[1024];
+        int[] cols = new int[1024];
+        float[] values = new float[1024];
+        int size;
+
+        void add(int row, int col, float value) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                cols = Arrays.copyOf(cols, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            rows[size] = row;
+            cols[size] = col;
+            values[size] = value;
+            size++;
+        }
+
+        // -- A · x, где x — матрица событий × k
+        float[] multiply(float[] x, int rowCount, int k) {
+            float[] result = new float[rowCount * k];
+            for (int n = 0; n < size; n++) {
+                int target = rows[n] * k;
+                int source = cols[n] * k;
+                for (int j = 0; j < k; j++) {
+                    result[target + j] += values[n] * x[source + j];
+                }
+            }
+            return result;
+        }
+
+        // -- Aᵀ · y, где y — матрица пользователей × k
+        float[] multiplyTransposed(float[] y, int colCount, int k) {
+            float[] result = new float[colCount * k];
+            for (int n = 0; n < size; n++) {
+                int target = cols[n] * k;
+                int source = rows[n] * k;
+                for (int j = 0; j < k; j++) {
+                    result[target + j] += values[n] * y[source + j];
+                }
+            }
+            return result;
+        }
+    }
+}
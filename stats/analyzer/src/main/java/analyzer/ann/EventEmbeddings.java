@@ -0,0 +1,23 @@
+package analyzer.ann;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Эмбеддинги событий одним плоским массивом: вектор события {@code eventIds[i]}
+ * занимает позиции {@code [i * dimension, (i + 1) * dimension)}. Векторы нормированы.
+ */
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class EventEmbeddings {
+    long[] eventIds;
+    float[] vectors;
+    int dimension;
+
+    public int size() {
+        return eventIds.length;
+    }
+}
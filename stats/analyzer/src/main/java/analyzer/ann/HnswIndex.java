@@ -0,0 +1,278 @@
+package analyzer.ann;
+
+import analyzer.model.Recommendation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Граф HNSW (Hierarchical Navigable Small World) над нормированными эмбеддингами событий.
+ * Мера близости — скалярное произведение (косинус). Индекс строится один раз целиком
+ * и дальше только читается, поэтому поиск из нескольких потоков безопасен.
+ */
+public class HnswIndex {
+    private static final Comparator<Candidate> CLOSEST_FIRST =
+            Comparator.comparingDouble((Candidate candidate) -> candidate.similarity).reversed();
+    private static final Comparator<Candidate> FURTHEST_FIRST =
+            Comparator.comparingDouble(candidate -> candidate.similarity);
+
+    private final EventEmbeddings embeddings;
+    private final int dimension;
+    private final int maxConnections;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Map<Long, Integer> nodeByEventId;
+    // -- links[node][layer] — соседи узла на слое
+    private final int[][][] links;
+    private int entryPoint = -1;
+    private int topLayer = -1;
+    // -- отметки посещения при построении: узел посещён, если его отметка равна текущей эпохе
+    private int[] buildMarks;
+    private int buildEpoch;
+
+    private HnswIndex(EventEmbeddings embeddings, int maxConnections, int efConstruction) {
+        this.embeddings = embeddings;
+        this.dimension = embeddings.getDimension();
+        this.maxConnections = maxConnections;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(maxConnections);
+        this.nodeByEventId = new HashMap<>(embeddings.size() * 2);
+        this.links = new int[embeddings.size()][][];
+    }
+
+    public static HnswIndex build(EventEmbeddings embeddings, int maxConnections, int efConstruction) {
+        HnswIndex index = new HnswIndex(embeddings, Math.max(2, maxConnections), efConstruction);
+        Random random = new Random(embeddings.size());
+        index.buildMarks = new int[embeddings.size()];
+        for (int node = 0; node < embeddings.size(); node++) {
+            index.nodeByEventId.put(embeddings.getEventIds()[node], node);
+            index.insert(node, random);
+        }
+        index.buildMarks = null;
+        return index;
+    }
+
+    public int size() {
+        return embeddings.size();
+    }
+
+    public boolean contains(Long eventId) {
+        return nodeByEventId.containsKey(eventId);
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Копирует эмбеддинг события в {@code target} начиная с {@code offset}.
+     *
+     * @return false, если события нет в индексе
+     */
+    public boolean copyVector(Long eventId, float[] target, int offset) {
+        Integer node = nodeByEventId.get(eventId);
+        if (node == null) {
+            return false;
+        }
+        System.arraycopy(embeddings.getVectors(), node * dimension, target, offset, dimension);
+        return true;
+    }
+
+    /**
+     * Возвращает до {@code k} событий, ближайших к заданному, по убыванию сходства.
+     * Само событие в результат не попадает.
+     */
+    public List<Recommendation> searchSimilar(Long eventId, int k, int ef) {
+        Integer node = nodeByEventId.get(eventId);
+        if (node == null || entryPoint < 0) {
+            return List.of();
+        }
+
+        float[] vectors = embeddings.getVectors();
+        int offset = node * dimension;
+        int current = entryPoint;
+        for (int layer = topLayer; layer > 0; layer--) {
+            current = greedyClosest(vectors, offset, current, layer);
+        }
+
+        // -- при поиске посещается малая часть графа, поэтому отметки хранятся в обычном множестве
+        Set<Integer> visited = new HashSet<>();
+        PriorityQueue<Candidate> found = searchLayer(vectors, offset, current, Math.max(ef, k + 1), 0, visited::add);
+        List<Candidate> ordered = new ArrayList<>(found);
+        ordered.sort(CLOSEST_FIRST);
+
+        List<Recommendation> result = new ArrayList<>(k);
+        for (Candidate candidate : ordered) {
+            if (candidate.node == node) {
+                continue;
+            }
+            if (result.size() == k) {
+                break;
+            }
+            result.add(new Recommendation(embeddings.getEventIds()[candidate.node], (double) candidate.similarity));
+        }
+        return result;
+    }
+
+    private void insert(int node, Random random) {
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        links[node] = new int[level + 1][];
+        for (int layer = 0; layer <= level; layer++) {
+            links[node][layer] = new int[0];
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLayer = level;
+            return;
+        }
+
+        float[] vectors = embeddings.getVectors();
+        int offset = node * dimension;
+        int current = entryPoint;
+        for (int layer = topLayer; layer > level; layer--) {
+            current = greedyClosest(vectors, offset, current, layer);
+        }
+
+        for (int layer = Math.min(level, topLayer); layer >= 0; layer--) {
+            int epoch = ++buildEpoch;
+            PriorityQueue<Candidate> found = searchLayer(vectors, offset, current, efConstruction, layer, visitedNode -> {
+                if (buildMarks[visitedNode] == epoch) {
+                    return false;
+                }
+                buildMarks[visitedNode] = epoch;
+                return true;
+            });
+            List<Candidate> ordered = new ArrayList<>(found);
+            ordered.sort(CLOSEST_FIRST);
+
+            int capacity = capacity(layer);
+            int[] neighbours = new int[Math.min(capacity, ordered.size())];
+            for (int i = 0; i < neighbours.length; i++) {
+                neighbours[i] = ordered.get(i).node;
+            }
+            links[node][layer] = neighbours;
+            for (int neighbour : neighbours) {
+                connect(neighbour, node, layer);
+            }
+            current = ordered.get(0).node;
+        }
+
+        if (level > topLayer) {
+            entryPoint = node;
+            topLayer = level;
+        }
+    }
+
+    // -- Добавляет обратную связь; при переполнении оставляет самых близких соседей
+    private void connect(int node, int neighbour, int layer) {
+        int[] existing = links[node][layer];
+        int[] extended = new int[existing.length + 1];
+        System.arraycopy(existing, 0, extended, 0, existing.length);
+        extended[existing.length] = neighbour;
+
+        int capacity = capacity(layer);
+        if (extended.length <= capacity) {
+            links[node][layer] = extended;
+            return;
+        }
+
+        float[] vectors = embeddings.getVectors();
+        int offset = node * dimension;
+        List<Candidate> ordered = new ArrayList<>(extended.length);
+        for (int candidate : extended) {
+            ordered.add(new Candidate(candidate, similarity(vectors, offset, candidate)));
+        }
+        ordered.sort(CLOSEST_FIRST);
+        int[] pruned = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            pruned[i] = ordered.get(i).node;
+        }
+        links[node][layer] = pruned;
+    }
+
+    private int greedyClosest(float[] query, int offset, int start, int layer) {
+        int current = start;
+        float best = similarity(query, offset, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbour : links[current][layer]) {
+                float similarity = similarity(query, offset, neighbour);
+                if (similarity > best) {
+                    best = similarity;
+                    current = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // -- Поиск ef ближайших на слое; результат — куча, на вершине которой самый дальний из найденных
+    // -- markVisited отмечает узел и возвращает false, если он уже был посещён
+    private PriorityQueue<Candidate> searchLayer(float[] query, int offset, int start, int ef, int layer,
+                                                 IntPredicate markVisited) {
+        PriorityQueue<Candidate> toVisit = new PriorityQueue<>(CLOSEST_FIRST);
+        PriorityQueue<Candidate> found = new PriorityQueue<>(FURTHEST_FIRST);
+
+        Candidate first = new Candidate(start, similarity(query, offset, start));
+        markVisited.test(start);
+        toVisit.add(first);
+        found.add(first);
+
+        while (!toVisit.isEmpty()) {
+            Candidate candidate = toVisit.poll();
+            if (found.size() >= ef && candidate.similarity < found.peek().similarity) {
+                break;
+            }
+            for (int neighbour : links[candidate.node][layer]) {
+                if (!markVisited.test(neighbour)) {
+                    continue;
+                }
+                float similarity = similarity(query, offset, neighbour);
+                if (found.size() < ef || similarity > found.peek().similarity) {
+                    Candidate next = new Candidate(neighbour, similarity);
+                    toVisit.add(next);
+                    found.add(next);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private float similarity(float[] query, int offset, int node) {
+        float[] vectors = embeddings.getVectors();
+        int base = node * dimension;
+        float dot = 0f;
+        for (int i = 0; i < dimension; i++) {
+            dot += query[offset + i] * vectors[base + i];
+        }
+        return dot;
+    }
+
+    private int capacity(int layer) {
+        return layer == 0 ? maxConnections * 2 : maxConnections;
+    }
+
+    private static class Candidate {
+        final int node;
+        final float similarity;
+
+        Candidate(int node, float similarity) {
+            this.node = node;
+            this.similarity = similarity;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package analyzer.ann;
+
+class ScalarEmbeddingScorer extends EmbeddingScorer {
+    @Override
+    public void dot(float[] query, float[] block, int dimension, int count, float[] out) {
+        for (int i = 0; i < count; i++) {
+            int base = i * dimension;
+            float sum = 0f;
+            for (int j = 0; j < dimension; j++) {
+                sum += query[j] * block[base + j];
+            }
+            out[i] = sum;
+        }
+    }
+
+    @Override
+    protected float selfDot(float[] vector, int offset, int dimension) {
+        float sum = 0f;
+        for (int j = 0; j < dimension; j++) {
+            sum += vector[offset + j] * vector[offset + j];
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
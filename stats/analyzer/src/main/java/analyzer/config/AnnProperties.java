@@ -0,0 +1,37 @@
+package analyzer.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.ann")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AnnProperties {
+    // -- Подбор кандидатов через приближённый поиск соседей вместо GROUP BY по similarities
+    boolean enabled = false;
+
+    // -- Размерность эмбеддингов событий (ранг усечённого SVD)
+    int rank = 32;
+
+    // -- Число итераций степенного метода при обучении
+    int iterations = 8;
+
+    // -- Максимум связей узла HNSW на верхних слоях (на нулевом — вдвое больше)
+    int maxConnections = 16;
+
+    int efConstruction = 100;
+
+    int efSearch = 64;
+
+    // -- EXACT — оценка по соседям из similarities, VECTOR — косинус профиля пользователя и эмбеддинга кандидата
+    Rerank rerank = Rerank.EXACT;
+
+    public enum Rerank {
+        EXACT,
+        VECTOR
+    }
+}
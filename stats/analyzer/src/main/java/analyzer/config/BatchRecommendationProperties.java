@@ -0,0 +1,17 @@
+package analyzer.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.batch")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchRecommendationProperties {
+    // -- Сколько лучших соседей каждого события держит граф пакетного расчёта
+    // -- (не меньше maxResult запроса); остальные пары сходства не загружаются
+    int maxNeighbours = 200;
+}
@@ -0,0 +1,43 @@
+package analyzer.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class GrpcExecutorConfig {
+    final GrpcExecutorProperties properties;
+    ExecutorService virtualExecutor;
+
+    @Bean
+    public GrpcServerConfigurer grpcExecutorConfigurer() {
+        return serverBuilder -> {
+            if (properties.getExecutor() == GrpcExecutorProperties.ExecutorMode.VIRTUAL) {
+                log.info("gRPC-сервер analyzer обрабатывает вызовы на виртуальных потоках");
+                virtualExecutor = Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual().name("grpc-analyzer-", 0).factory());
+                serverBuilder.executor(virtualExecutor);
+            } else {
+                log.info("gRPC-сервер analyzer использует стандартный пул потоков");
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (virtualExecutor != null) {
+            virtualExecutor.close();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package analyzer.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "analyzer.grpc")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GrpcExecutorProperties {
+    // -- PLATFORM — стандартный кэшируемый пул gRPC, VIRTUAL — каждый вызов на отдельном виртуальном потоке
+    ExecutorMode executor = ExecutorMode.PLATFORM;
+
+    // -- Сколько вызовов одновременно могут обращаться к БД; 0 — без ограничения.
+    // -- Имеет смысл держать равным размеру пула соединений.
+    int maxConcurrentCalls = 10;
+
+    // -- Сколько вызов ждёт свободного слота, прежде чем получить RESOURCE_EXHAUSTED
+    Duration acquireTimeout = Duration.ofSeconds(5);
+
+    public enum ExecutorMode {
+        PLATFORM,
+        VIRTUAL
+    }
+}
@@ -0,0 +1,115 @@
+package analyzer.controller;
+
+import analyzer.config.GrpcExecutorProperties;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает число обработчиков gRPC, одновременно выполняющих работу с БД.
+ * На виртуальных потоках количество параллельных вызовов ничем не ограничено, и без лимита
+ * они выстраиваются в очередь за соединениями пула Hikari. Здесь ожидание происходит до входа
+ * в обработчик, а при исчерпании времени ожидания вызов завершается со статусом RESOURCE_EXHAUSTED.
+ * Дочитывание ленивого источника ответа (onReady) ограничивает сам {@link FlowControlledResponse}
+ * через {@link #CALL_PERMIT}: завершить поток может только владелец observer'а, а не перехватчик.
+ * Регистрируется только в режиме VIRTUAL: стандартный пул gRPC ограничен сам по себе.
+ */
+@GrpcGlobalServerInterceptor
+@ConditionalOnProperty(prefix = "analyzer.grpc", name = "executor", havingValue = "virtual")
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class DbConcurrencyLimitInterceptor implements ServerInterceptor {
+    // -- Разрешение текущего вызова; не задано, если перехватчик не зарегистрирован
+    static final Context.Key<CallPermit> CALL_PERMIT = Context.key("analyzer-db-call-permit");
+
+    Semaphore permits;
+    long acquireTimeoutMillis;
+
+    public DbConcurrencyLimitInterceptor(GrpcExecutorProperties properties) {
+        int maxConcurrentCalls = properties.getMaxConcurrentCalls();
+        this.permits = maxConcurrentCalls > 0 ? new Semaphore(maxConcurrentCalls, true) : null;
+        this.acquireTimeoutMillis = properties.getAcquireTimeout().toMillis();
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                        ServerCallHandler<Q, R> next) {
+        if (permits == null) {
+            return next.startCall(call, headers);
+        }
+
+        CallPermit permit = new CallPermit(permits, acquireTimeoutMillis);
+        Context context = Context.current().withValue(CALL_PERMIT, permit);
+        ServerCall.Listener<Q> delegate = Contexts.interceptCall(context, call, headers, next);
+
+        // -- Обработчик ещё не запущен, поэтому при отказе вызов можно закрыть здесь
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(delegate) {
+            @Override
+            public void onHalfClose() {
+                if (!permit.acquire()) {
+                    log.warn("Превышено время ожидания свободного слота для вызова {}",
+                            call.getMethodDescriptor().getFullMethodName());
+                    call.close(CallPermit.EXHAUSTED, new Metadata());
+                    return;
+                }
+                try {
+                    super.onHalfClose();
+                } finally {
+                    permit.release();
+                }
+            }
+        };
+    }
+
+    /**
+     * Слот семафора в рамках одного вызова. Колбэки вызова gRPC выполняет последовательно,
+     * но onReady может прийти изнутри onHalfClose — повторный захват в этом случае слот не занимает.
+     */
+    static final class CallPermit {
+        static final Status EXHAUSTED = Status.RESOURCE_EXHAUSTED
+                .withDescription("Сервис перегружен, повторите запрос позже");
+
+        private final Semaphore permits;
+        private final long acquireTimeoutMillis;
+        private int depth;
+
+        private CallPermit(Semaphore permits, long acquireTimeoutMillis) {
+            this.permits = permits;
+            this.acquireTimeoutMillis = acquireTimeoutMillis;
+        }
+
+        boolean acquire() {
+            if (depth == 0) {
+                try {
+                    if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        return false;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            depth++;
+            return true;
+        }
+
+        void release() {
+            if (--depth == 0) {
+                permits.release();
+            }
+        }
+    }
+}
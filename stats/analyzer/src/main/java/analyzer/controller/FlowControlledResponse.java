@@ -0,0 +1,91 @@
+package analyzer.controller;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+
+/**
+ * Отправляет элементы итератора в поток ответа gRPC с учётом flow control.
+ * Очередной элемент запрашивается у источника только когда транспорт готов его принять ({@code isReady}),
+ * иначе отправка приостанавливается до следующего вызова {@code onReadyHandler}.
+ * При отмене вызова клиентом или истечении его дедлайна чтение источника прекращается.
+ * Если зарегистрирован {@link DbConcurrencyLimitInterceptor}, источник читается только под его разрешением;
+ * не дождавшись разрешения, ответ сам прекращает чтение и завершает поток со статусом RESOURCE_EXHAUSTED.
+ */
+@Slf4j
+final class FlowControlledResponse<T> implements Runnable {
+    private final Iterator<T> source;
+    private final ServerCallStreamObserver<T> observer;
+    private final String callName;
+    private final DbConcurrencyLimitInterceptor.CallPermit permit;
+    private volatile boolean finished;
+
+    private FlowControlledResponse(Iterator<T> source, ServerCallStreamObserver<T> observer, String callName,
+                                   DbConcurrencyLimitInterceptor.CallPermit permit) {
+        this.source = source;
+        this.observer = observer;
+        this.callName = callName;
+        this.permit = permit;
+    }
+
+    /**
+     * Регистрирует обработчики готовности и отмены. Должен вызываться внутри метода gRPC-сервиса,
+     * до его возврата: после этого обработчики уже нельзя установить.
+     */
+    static <T> void send(Iterator<T> source, StreamObserver<T> responseObserver, String callName) {
+        ServerCallStreamObserver<T> observer = (ServerCallStreamObserver<T>) responseObserver;
+        FlowControlledResponse<T> response = new FlowControlledResponse<>(source, observer, callName,
+                DbConcurrencyLimitInterceptor.CALL_PERMIT.get());
+        observer.setOnCancelHandler(response::cancel);
+        observer.setOnReadyHandler(response);
+    }
+
+    // -- вызывается gRPC каждый раз, когда транспорт снова готов принимать сообщения
+    @Override
+    public void run() {
+        if (finished) {
+            return;
+        }
+        if (permit != null && !permit.acquire()) {
+            finished = true;
+            log.warn("Превышено время ожидания свободного слота для дочитывания ответа {}", callName);
+            if (!observer.isCancelled()) {
+                observer.onError(DbConcurrencyLimitInterceptor.CallPermit.EXHAUSTED.asRuntimeException());
+            }
+            return;
+        }
+        try {
+            while (observer.isReady() && !observer.isCancelled()) {
+                if (!source.hasNext()) {
+                    finished = true;
+                    observer.onCompleted();
+                    return;
+                }
+                observer.onNext(source.next());
+            }
+        } catch (Exception e) {
+            finished = true;
+            if (observer.isCancelled()) {
+                log.debug("Вызов {} отменён клиентом во время формирования ответа", callName);
+                return;
+            }
+            log.error("Ошибка при формировании потока ответа {}", callName, e);
+            observer.onError(Status.INTERNAL
+                    .withDescription(e.getLocalizedMessage())
+                    .withCause(e)
+                    .asRuntimeException());
+        } finally {
+            if (permit != null) {
+                permit.release();
+            }
+        }
+    }
+
+    private void cancel() {
+        finished = true;
+        log.info("Вызов {} отменён клиентом или по дедлайну, формирование ответа остановлено", callName);
+    }
+}
@@ -10,12 +10,14 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
 import ru.practicum.grpc.ewm.dashboard.analyzer.RecommendationsControllerGrpc;
+import ru.practicum.grpc.ewm.dashboard.message.BatchUserPredictionsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.InteractionsCountRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import ru.practicum.grpc.ewm.dashboard.message.SimilarEventsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.UserPredictionsRequestProto;
+import ru.practicum.grpc.ewm.dashboard.message.UserRecommendationsProto;
 
-import java.util.List;
+import java.util.Iterator;
 
 @GrpcService
 @RequiredArgsConstructor
@@ -30,10 +32,26 @@ public class RecommendationController extends RecommendationsControllerGrpc.Reco
                                           StreamObserver<RecommendedEventProto> responseObserver) {
         try {
             log.info("Начинаем обрабатывать запрос на получение пользовательских рекомендаций");
-            List<RecommendedEventProto> eventProtos =
+            Iterator<RecommendedEventProto> eventProtos =
                     recommendationsService.getRecommendationsForUser(userPredictionsRequestProto);
-            eventProtos.forEach(responseObserver::onNext);
-            responseObserver.onCompleted();
+            FlowControlledResponse.send(eventProtos, responseObserver, "getRecommendationsForUser");
+        } catch (Exception e) {
+            responseObserver.onError(new StatusRuntimeException(
+                    Status.INTERNAL
+                            .withDescription(e.getLocalizedMessage())
+                            .withCause(e)
+            ));
+        }
+    }
+
+    @Override
+    public void getRecommendationsForUsers(BatchUserPredictionsRequestProto batchUserPredictionsRequestProto,
+                                           StreamObserver<UserRecommendationsProto> responseObserver) {
+        try {
+            log.info("Начинаем обрабатывать пакетный запрос на получение пользовательских рекомендаций");
+            Iterator<UserRecommendationsProto> userRecommendations =
+                    recommendationsService.getRecommendationsForUsers(batchUserPredictionsRequestProto);
+            FlowControlledResponse.send(userRecommendations, responseObserver, "getRecommendationsForUsers");
         } catch (Exception e) {
             responseObserver.onError(new StatusRuntimeException(
                     Status.INTERNAL
@@ -47,10 +65,9 @@ public class RecommendationController extends RecommendationsControllerGrpc.Reco
     public void getSimilarEvents(SimilarEventsRequestProto similarEventsRequestProto, StreamObserver<RecommendedEventProto> responseObserver) {
         try {
             log.info("Начинаем обрабатывать запрос на получение похожих событий");
-            List<RecommendedEventProto> eventProtos =
+            Iterator<RecommendedEventProto> eventProtos =
                     recommendationsService.getSimilarEvents(similarEventsRequestProto);
-            eventProtos.forEach(responseObserver::onNext);
-            responseObserver.onCompleted();
+            FlowControlledResponse.send(eventProtos, responseObserver, "getSimilarEvents");
         } catch (Exception e) {
             responseObserver.onError(new StatusRuntimeException(
                     Status.INTERNAL
@@ -65,10 +82,9 @@ public class RecommendationController extends RecommendationsControllerGrpc.Reco
                                      StreamObserver<RecommendedEventProto> responseObserver) {
         try {
             log.info("Начинаем обрабатывать запрос на получение количества взаимодействий");
-            List<RecommendedEventProto> eventProtos =
+            Iterator<RecommendedEventProto> eventProtos =
                     recommendationsService.getInteractionsCount(interactionsCountRequestProto);
-            eventProtos.forEach(responseObserver::onNext);
-            responseObserver.onCompleted();
+            FlowControlledResponse.send(eventProtos, responseObserver, "getInteractionsCount");
         } catch (Exception e) {
             responseObserver.onError(new StatusRuntimeException(
                     Status.INTERNAL
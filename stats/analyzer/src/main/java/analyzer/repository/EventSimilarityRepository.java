@@ -17,6 +17,7 @@ import java.util.stream.Collectors;
 public interface EventSimilarityRepository extends JpaRepository<EventSimilarity, Long> {
 
     // -- Находит N самых похожих событий на заданное, исключая переданный список ID.
+    // -- Порядок полный (при равном score — по id события), чтобы страницы не пересекались и не теряли строк.
     @Query("""
         SELECT new analyzer.model.Recommendation(
             CASE WHEN es.eventA = :eventId THEN es.eventB ELSE es.eventA END,
@@ -27,6 +28,9 @@ public interface EventSimilarityRepository extends JpaRepository<EventSimilarity
             (es.eventA = :eventId OR es.eventB = :eventId)
         AND
             (CASE WHEN es.eventA = :eventId THEN es.eventB ELSE es.eventA END) NOT IN :excludeIds
+        ORDER BY
+            es.score DESC,
+            (CASE WHEN es.eventA = :eventId THEN es.eventB ELSE es.eventA END)
         """)
     List<Recommendation> findTopSimilarExcluding(@Param("eventId") Long eventId,
                                                  @Param("excludeIds") Set<Long> excludeIds,
@@ -112,6 +116,35 @@ public interface EventSimilarityRepository extends JpaRepository<EventSimilarity
                                                @Param("candidateIds") Set<Long> candidates,
                                                @Param("maxNeighbours") int maxNeighbours);
 
+    // -- Для каждого из переданных событий — до maxNeighbours самых похожих соседей среди всех событий.
+    @Query(value =
+            """
+            WITH pairs AS (
+                SELECT es.event_a as primary_id, es.event_b as neighbour_id, es.score
+                FROM similarities es
+                WHERE es.event_a IN (:eventIds)
+                UNION ALL
+                SELECT es.event_b as primary_id, es.event_a as neighbour_id, es.score
+                FROM similarities es
+                WHERE es.event_b IN (:eventIds)
+            ),
+            ranked_pairs AS (
+                SELECT
+                    *,
+                    ROW_NUMBER() OVER (PARTITION BY primary_id ORDER BY score DESC, neighbour_id) as rn
+                FROM pairs
+            )
+            SELECT
+                primary_id as primaryId,
+                neighbour_id as neighbourId,
+                score
+            FROM ranked_pairs
+            WHERE rn <= :maxNeighbours
+            """,
+            nativeQuery = true)
+    List<NeighbourResult> findTopNeighbours(@Param("eventIds") Set<Long> eventIds,
+                                            @Param("maxNeighbours") int maxNeighbours);
+
     @Query("SELECT COUNT(s) > 0 FROM EventSimilarity s " +
            "WHERE (s.eventA = :eventA AND s.eventB = :eventB) OR (s.eventA = :eventB AND s.eventB = :eventA)")
     boolean existsByEventAAndEventB(Long eventA, Long eventB);
@@ -1,15 +1,20 @@
 package analyzer.repository;
 
 import analyzer.model.UserAction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface UserActionRepository extends JpaRepository<UserAction, Long> {
     // -- получает ID всех событий, с которыми взаимодействовал пользователь.
@@ -20,6 +25,9 @@ public interface UserActionRepository extends JpaRepository<UserAction, Long> {
     @Query("SELECT ua.eventId FROM UserAction ua WHERE ua.userId = :userId")
     List<Long> findRecentEventIdsByUserId(Long userId, Pageable pageable);
 
+    // -- Все действия переданной группы пользователей одним запросом (для пакетного расчёта рекомендаций).
+    List<UserAction> findAllByUserIdIn(Collection<Long> userIds);
+
     /**
      * Возвращает веса действий пользователя для указанных событий.
      * Использует default-метод для преобразования в Map.
@@ -52,5 +60,10 @@ public interface UserActionRepository extends JpaRepository<UserAction, Long> {
         """)
     List<Object[]> getSumOfWeights(@Param("eventIds") List<Long> eventIds);
 
+    // -- Вся матрица пользователь × событие потоком, для обучения эмбеддингов. Требует открытой транзакции.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT ua.userId, ua.eventId, ua.actionWeight FROM UserAction ua WHERE ua.actionWeight IS NOT NULL")
+    Stream<Object[]> streamAllWeights();
+
     Optional<UserAction> findByUserIdAndEventId(long userId, long eventId);
 }
\ No newline at end of file
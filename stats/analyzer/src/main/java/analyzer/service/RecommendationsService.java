@@ -1,16 +1,20 @@
 package analyzer.service;
 
+import ru.practicum.grpc.ewm.dashboard.message.BatchUserPredictionsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.InteractionsCountRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import ru.practicum.grpc.ewm.dashboard.message.SimilarEventsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.UserPredictionsRequestProto;
+import ru.practicum.grpc.ewm.dashboard.message.UserRecommendationsProto;
 
-import java.util.List;
+import java.util.Iterator;
 
 public interface RecommendationsService {
-    List<RecommendedEventProto> getRecommendationsForUser(UserPredictionsRequestProto request);
+    Iterator<RecommendedEventProto> getRecommendationsForUser(UserPredictionsRequestProto request);
 
-    List<RecommendedEventProto> getSimilarEvents(SimilarEventsRequestProto request);
+    Iterator<UserRecommendationsProto> getRecommendationsForUsers(BatchUserPredictionsRequestProto request);
 
-    List<RecommendedEventProto> getInteractionsCount(InteractionsCountRequestProto request);
+    Iterator<RecommendedEventProto> getSimilarEvents(SimilarEventsRequestProto request);
+
+    Iterator<RecommendedEventProto> getInteractionsCount(InteractionsCountRequestProto request);
 }
@@ -0,0 +1,204 @@
+package analyzer.service.impl;
+
+import analyzer.model.NeighbourResult;
+import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Финальное ранжирование кандидатов на примитивных массивах.
+ * Соседи кандидатов хранятся в формате CSR: соседи кандидата {@code i} занимают позиции
+ * {@code [offsets[i], offsets[i + 1])} в массивах {@code neighbourIds} и {@code neighbourScores}.
+ * Оценки пользователя — отсортированные по id события параллельные массивы, поиск бинарный.
+ * Лучшие K кандидатов отбираются min-кучей размера K без полной сортировки,
+ * и proto-объекты создаются только для них.
+ */
+final class RankingKernel {
+    private RankingKernel() {
+    }
+
+    /**
+     * @param candidateEventIds кандидаты в рекомендации
+     * @param neighbours        строки findNeighboursNative: кандидат, его сосед и сходство
+     * @param ratingRows        строки findActionWeights: id события и вес действия пользователя
+     * @param k                 сколько лучших кандидатов вернуть
+     */
+    static List<RecommendedEventProto> rank(Collection<Long> candidateEventIds, List<NeighbourResult> neighbours,
+                                            List<Object[]> ratingRows, int k) {
+        long[] candidateIds = new long[candidateEventIds.size()];
+        int c = 0;
+        for (Long candidateId : candidateEventIds) {
+            candidateIds[c++] = candidateId;
+        }
+        Arrays.sort(candidateIds);
+
+        // -- раскладываем соседей по кандидатам: подсчёт, префиксные суммы, заполнение
+        int[] offsets = new int[candidateIds.length + 1];
+        int[] owner = new int[neighbours.size()];
+        for (int n = 0; n < neighbours.size(); n++) {
+            owner[n] = Arrays.binarySearch(candidateIds, neighbours.get(n).getPrimaryId());
+            offsets[owner[n] + 1]++;
+        }
+        for (int i = 0; i < candidateIds.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        long[] neighbourIds = new long[neighbours.size()];
+        double[] neighbourScores = new double[neighbours.size()];
+        int[] cursor = Arrays.copyOf(offsets, candidateIds.length);
+        for (int n = 0; n < neighbours.size(); n++) {
+            int position = cursor[owner[n]]++;
+            neighbourIds[position] = neighbours.get(n).getNeighbourId();
+            neighbourScores[position] = neighbours.get(n).getScore();
+        }
+
+        // -- оценки без веса в расчёте не участвуют, как и раньше
+        long[] ratedEventIds = new long[ratingRows.size()];
+        int rated = 0;
+        for (Object[] row : ratingRows) {
+            if (row[1] != null) {
+                ratedEventIds[rated++] = (Long) row[0];
+            }
+        }
+        ratedEventIds = Arrays.copyOf(ratedEventIds, rated);
+        Arrays.sort(ratedEventIds);
+        double[] ratings = new double[rated];
+        for (Object[] row : ratingRows) {
+            if (row[1] != null) {
+                ratings[Arrays.binarySearch(ratedEventIds, (Long) row[0])] = (Double) row[1];
+            }
+        }
+
+        return topK(candidateIds, offsets, neighbourIds, neighbourScores, ratedEventIds, ratings, k);
+    }
+
+    static List<RecommendedEventProto> topK(long[] candidateIds, int[] offsets,
+                                            long[] neighbourIds, double[] neighbourScores,
+                                            long[] ratedEventIds, double[] ratings, int k) {
+        BoundedHeap heap = new BoundedHeap(candidateIds, Math.min(k, candidateIds.length));
+
+        for (int i = 0; i < candidateIds.length; i++) {
+            double weightedSum = 0.0;
+            double similaritySum = 0.0;
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                int r = Arrays.binarySearch(ratedEventIds, neighbourIds[j]);
+                if (r >= 0) {
+                    weightedSum += ratings[r] * neighbourScores[j];
+                    similaritySum += neighbourScores[j];
+                }
+            }
+            if (similaritySum == 0) {
+                continue;
+            }
+
+            // -- точность оценки та же, что и в ответе (float)
+            heap.offer((float) (weightedSum / similaritySum), i);
+        }
+        return heap.drain();
+    }
+
+    /**
+     * Отбор лучших K по уже посчитанным оценкам: {@code scores[i]} — оценка кандидата {@code candidateIds[i]}.
+     */
+    static List<RecommendedEventProto> topK(long[] candidateIds, float[] scores, int count, int k) {
+        BoundedHeap heap = new BoundedHeap(candidateIds, Math.min(k, count));
+        for (int i = 0; i < count; i++) {
+            heap.offer(scores[i], i);
+        }
+        return heap.drain();
+    }
+
+    // -- Min-куча фиксированного размера на параллельных массивах: на вершине худший из отобранных.
+    // -- При равной оценке выше стоит кандидат с меньшим id — как при устойчивой сортировке по возрастанию id.
+    private static class BoundedHeap {
+        final long[] candidateIds;
+        final double[] scores;
+        final int[] items;
+        int size;
+
+        BoundedHeap(long[] candidateIds, int capacity) {
+            this.candidateIds = candidateIds;
+            this.scores = new double[capacity];
+            this.items = new int[capacity];
+        }
+
+        void offer(double score, int item) {
+            if (size < scores.length) {
+                scores[size] = score;
+                items[size] = item;
+                siftUp(size++);
+            } else if (size > 0 && better(score, item, scores[0], items[0])) {
+                scores[0] = score;
+                items[0] = item;
+                siftDown(0, size);
+            }
+        }
+
+        // -- извлекаем худших с конца, получая порядок по убыванию оценки
+        List<RecommendedEventProto> drain() {
+            RecommendedEventProto[] winners = new RecommendedEventProto[size];
+            for (int last = size - 1; last >= 0; last--) {
+                winners[last] = RecommendedEventProto.newBuilder()
+                        .setEventId(candidateIds[items[0]])
+                        .setScore(scores[0])
+                        .build();
+                scores[0] = scores[last];
+                items[0] = items[last];
+                siftDown(0, last);
+            }
+            size = 0;
+            return Arrays.asList(winners);
+        }
+
+        private boolean better(double score, int item, double otherScore, int otherItem) {
+            if (score != otherScore) {
+                return score > otherScore;
+            }
+            return candidateIds[item] < candidateIds[otherItem];
+        }
+
+        private boolean worse(int a, int b) {
+            return better(scores[b], items[b], scores[a], items[a]);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(index, parent)) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int size) {
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && worse(left, worst)) {
+                    worst = left;
+                }
+                if (right < size && worse(right, worst)) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(worst, index);
+                index = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+            int item = items[a];
+            items[a] = items[b];
+            items[b] = item;
+        }
+    }
+}
@@ -1,44 +1,80 @@
 package analyzer.service.impl;
 
+import analyzer.ann.AnnCandidateIndex;
+import analyzer.ann.EmbeddingScorer;
+import analyzer.ann.HnswIndex;
+import analyzer.config.BatchRecommendationProperties;
+import analyzer.model.NeighbourResult;
 import analyzer.model.Recommendation;
+import analyzer.model.UserAction;
 import analyzer.repository.EventSimilarityRepository;
 import analyzer.repository.UserActionRepository;
+import analyzer.stream.LazyIterator;
+import analyzer.stream.PagedIterator;
+import io.grpc.Context;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.grpc.ewm.dashboard.message.BatchUserPredictionsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.InteractionsCountRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import ru.practicum.grpc.ewm.dashboard.message.SimilarEventsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.UserPredictionsRequestProto;
+import ru.practicum.grpc.ewm.dashboard.message.UserRecommendationsProto;
 
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
-@Transactional(readOnly = true)
+// -- Методы возвращают ленивые итераторы: запросы к БД выполняются по мере чтения ответа контроллером,
+// -- уже вне прокси сервиса. Поэтому каждая загрузка явно оборачивается в короткую read-only транзакцию
+// -- (inReadOnlyTransaction), и соединение не удерживается на время отправки клиенту.
 public class RecommendationsService implements analyzer.service.RecommendationsService {
+    // -- Размер страницы при потоковой выдаче похожих событий
+    private static final int STREAM_PAGE_SIZE = 100;
+    // -- Сколько пользователей пакетного запроса обрабатывается за одну порцию загрузок из БД
+    private static final int BATCH_CHUNK_SIZE = 500;
+
     UserActionRepository userActionRepository;
     EventSimilarityRepository eventSimilarityRepository;
+    AnnCandidateIndex annCandidateIndex;
+    PlatformTransactionManager transactionManager;
+    BatchRecommendationProperties batchProperties;
 
     @Override
-    public List<RecommendedEventProto> getRecommendationsForUser(UserPredictionsRequestProto request) {
+    public Iterator<RecommendedEventProto> getRecommendationsForUser(UserPredictionsRequestProto request) {
+        return LazyIterator.of(() -> inReadOnlyTransaction(() -> computeRecommendationsForUser(request)).iterator());
+    }
+
+    private List<RecommendedEventProto> computeRecommendationsForUser(UserPredictionsRequestProto request) {
         Long userId = request.getUserId();
         int limit = (int) request.getMaxResult(); // Единственный параметр для всех ограничений
         log.info("Запрос персонализированных рекомендаций для userId={}, limit={}", userId, limit);
 
+        if (limit <= 0) {
+            return List.of();
+        }
+
         Pageable recentInteractionsPageable = PageRequest.of(0, limit);
         List<Long> recentEventIds = userActionRepository.findRecentEventIdsByUserId(userId, recentInteractionsPageable);
 
@@ -50,43 +86,202 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
         // -- Найти похожие новые события, исключая все, что пользователь уже видел.
         Set<Long> allUserEvents = userActionRepository.findEventIdsByUserId(userId);
 
-        Pageable candidatesPageable = PageRequest.of(0, limit);
-        List<Recommendation> candidateRecs = eventSimilarityRepository.findTopSimilarToSetExcluding(
-                recentEventIds,
-                allUserEvents,
-                candidatesPageable
-        );
-        Set<Long> candidateEventIds = candidateRecs.stream().map(Recommendation::getEventId).collect(Collectors.toSet());
+        // -- Кандидаты из индекса ANN, если он включён и построен; точные оценки считаются ниже как обычно
+        Set<Long> candidateEventIds = annCandidateIndex.findCandidates(recentEventIds, allUserEvents, limit)
+                .orElseGet(() -> findCandidatesInDatabase(recentEventIds, allUserEvents, limit));
 
         if (candidateEventIds.isEmpty()) {
             log.warn("Не найдено новых кандидатов для рекомендаций для userId={}", userId);
             return List.of();
         }
 
+        if (isCallCancelled(userId)) {
+            return List.of();
+        }
+
+        if (annCandidateIndex.isVectorRerank()) {
+            Optional<HnswIndex> index = annCandidateIndex.currentIndex();
+            if (index.isPresent()) {
+                Map<Long, Double> recentWeights =
+                        userActionRepository.findWeightsByUserIdAndEventIds(userId, Set.copyOf(recentEventIds));
+                List<RecommendedEventProto> reranked =
+                        rerankByVectors(index.get(), recentWeights, candidateEventIds, limit);
+                log.info("Сформировано {} рекомендаций (векторное ранжирование) для userId={}", reranked.size(), userId);
+                return reranked;
+            }
+        }
+
         // -- найти ближайших просмотренных соседей для всех кандидатов.
-        Map<Long, List<Recommendation>> neighboursMap = eventSimilarityRepository.findNeighbourEventsFrom(
+        List<NeighbourResult> neighbours = eventSimilarityRepository.findNeighboursNative(
                 candidateEventIds,
                 allUserEvents,
                 limit
         );
+        if (neighbours.isEmpty()) {
+            return List.of();
+        }
 
         // -- Получить оценки пользователя для всех найденных соседей
-        Set<Long> allNeighbourIds = neighboursMap.values().stream()
-                .flatMap(List::stream)
-                .map(Recommendation::getEventId)
+        Set<Long> allNeighbourIds = neighbours.stream()
+                .map(NeighbourResult::getNeighbourId)
                 .collect(Collectors.toSet());
-        Map<Long, Double> userRatings = userActionRepository.findWeightsByUserIdAndEventIds(userId, allNeighbourIds);
+        if (isCallCancelled(userId)) {
+            return List.of();
+        }
+        List<Object[]> userRatings = userActionRepository.findActionWeights(userId, allNeighbourIds);
 
-        // -- Вычисляем финальный score
-        List<RecommendedEventProto> finalRecommendations = candidateEventIds.stream()
-                .map(candidateId -> {
-                    List<Recommendation> neighbours = neighboursMap.getOrDefault(candidateId, List.of());
-                    if (neighbours.isEmpty()) return null;
+        // -- Вычисляем финальный score и отбираем лучшие limit кандидатов
+        List<RecommendedEventProto> finalRecommendations =
+                RankingKernel.rank(candidateEventIds, neighbours, userRatings, limit);
+
+        log.info("Сформировано {} рекомендаций для userId={}", finalRecommendations.size(), userId);
+        return finalRecommendations;
+    }
+
+    /**
+     * Векторное ранжирование: профиль пользователя — сумма эмбеддингов недавних событий с весами действий,
+     * оценка кандидата — косинус между профилем и его эмбеддингом. Кандидаты без эмбеддинга пропускаются.
+     */
+    private List<RecommendedEventProto> rerankByVectors(HnswIndex index, Map<Long, Double> weights,
+                                                        Set<Long> candidateEventIds, int limit) {
+        int dimension = index.getDimension();
+        float[] profile = new float[dimension];
+        float[] vector = new float[dimension];
+        weights.forEach((eventId, weight) -> {
+            if (index.copyVector(eventId, vector, 0)) {
+                for (int j = 0; j < dimension; j++) {
+                    profile[j] += (float) (weight * vector[j]);
+                }
+            }
+        });
+
+        long[] candidateIds = new long[candidateEventIds.size()];
+        float[] block = new float[candidateEventIds.size() * dimension];
+        int count = 0;
+        for (Long candidateId : candidateEventIds) {
+            if (index.copyVector(candidateId, block, count * dimension)) {
+                candidateIds[count++] = candidateId;
+            }
+        }
+
+        float[] scores = new float[count];
+        EmbeddingScorer.getInstance().cosine(profile, block, dimension, count, scores);
+        return RankingKernel.topK(candidateIds, scores, count, limit);
+    }
+
+    private Set<Long> findCandidatesInDatabase(List<Long> recentEventIds, Set<Long> allUserEvents, int limit) {
+        Pageable candidatesPageable = PageRequest.of(0, limit);
+        List<Recommendation> candidateRecs = eventSimilarityRepository.findTopSimilarToSetExcluding(
+                recentEventIds,
+                allUserEvents,
+                candidatesPageable
+        );
+        return candidateRecs.stream().map(Recommendation::getEventId).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Iterator<UserRecommendationsProto> getRecommendationsForUsers(BatchUserPredictionsRequestProto request) {
+        List<Long> userIds = List.copyOf(new LinkedHashSet<>(request.getUserIdList()));
+        int limit = (int) request.getMaxResult();
+        log.info("Пакетный запрос рекомендаций для {} пользователей, limit={}", userIds.size(), limit);
 
+        if (userIds.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+
+        // -- Граф соседей живёт всё задание: одни и те же события встречаются у многих пользователей
+        SimilarityGraph graph = new SimilarityGraph(eventSimilarityRepository,
+                Math.max(batchProperties.getMaxNeighbours(), limit));
+        return new PagedIterator<>(page -> {
+            int from = Math.min(page * BATCH_CHUNK_SIZE, userIds.size());
+            int to = Math.min(from + BATCH_CHUNK_SIZE, userIds.size());
+            return inReadOnlyTransaction(() -> computeRecommendationsForUsers(userIds.subList(from, to), limit, graph));
+        }, BATCH_CHUNK_SIZE, userIds.size());
+    }
+
+    /**
+     * Рассчитывает рекомендации для порции пользователей.
+     * Действия пользователей и соседи событий загружаются общими запросами на всю порцию,
+     * а подбор кандидатов и расчёт оценок выполняются параллельно в пуле fork-join.
+     * Формула оценки та же, что в {@link #computeRecommendationsForUser}, но результат приближённый:
+     * соседи событий берутся из общего графа, где у каждого события не больше analyzer.batch.max-neighbours
+     * соседей, поэтому кандидаты и оценки могут отличаться от одиночного запроса.
+     * При равных оценках порядок, как и там, — по возрастанию id события.
+     */
+    private List<UserRecommendationsProto> computeRecommendationsForUsers(List<Long> userIds, int limit,
+                                                                          SimilarityGraph graph) {
+        if (userIds.isEmpty() || Context.current().isCancelled()) {
+            return List.of();
+        }
+
+        Map<Long, UserProfile> profiles = new HashMap<>();
+        if (limit > 0) {
+            userActionRepository.findAllByUserIdIn(userIds).stream()
+                    .collect(Collectors.groupingBy(UserAction::getUserId))
+                    .forEach((userId, actions) -> profiles.put(userId, new UserProfile(actions, limit)));
+        }
+
+        graph.load(profiles.values().stream()
+                .flatMap(profile -> profile.getRecentEventIds().stream())
+                .collect(Collectors.toSet()));
+
+        Map<Long, List<Long>> candidatesByUser = profiles.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        entry -> findCandidates(entry.getValue(), graph, limit)));
+
+        graph.load(candidatesByUser.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toSet()));
+
+        List<UserRecommendationsProto> result = userIds.parallelStream()
+                .map(userId -> UserRecommendationsProto.newBuilder()
+                        .setUserId(userId)
+                        .addAllRecommendation(profiles.containsKey(userId)
+                                ? scoreCandidates(profiles.get(userId), candidatesByUser.get(userId), graph, limit)
+                                : List.of())
+                        .build())
+                .toList();
+
+        log.info("Рассчитаны рекомендации для {} пользователей, соседей в графе: {}", result.size(), graph.size());
+        return result;
+    }
+
+    // -- Аналог findTopSimilarToSetExcluding: максимальное сходство с недавними событиями, без уже виденных
+    private List<Long> findCandidates(UserProfile profile, SimilarityGraph graph, int limit) {
+        Map<Long, Double> bestScores = new HashMap<>();
+        for (Long recentEventId : profile.getRecentEventIds()) {
+            for (Recommendation neighbour : graph.neighboursOf(recentEventId)) {
+                if (!profile.getWeights().containsKey(neighbour.getEventId())) {
+                    bestScores.merge(neighbour.getEventId(), neighbour.getScore(), Math::max);
+                }
+            }
+        }
+
+        return bestScores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Long, Double>comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // -- Аналог findNeighbourEventsFrom + взвешенной оценки из computeRecommendationsForUser
+    private List<RecommendedEventProto> scoreCandidates(UserProfile profile, List<Long> candidateIds,
+                                                        SimilarityGraph graph, int limit) {
+        return candidateIds.stream()
+                .map(candidateId -> {
                     double weightedSum = 0.0;
                     double similaritySum = 0.0;
-                    for (Recommendation neighbour : neighbours) {
-                        Double rating = userRatings.get(neighbour.getEventId());
+                    int neighboursUsed = 0;
+                    for (Recommendation neighbour : graph.neighboursOf(candidateId)) {
+                        if (neighboursUsed == limit) {
+                            break;
+                        }
+                        if (!profile.getWeights().containsKey(neighbour.getEventId())) {
+                            continue;
+                        }
+                        neighboursUsed++;
+                        Double rating = profile.getWeights().get(neighbour.getEventId());
                         if (rating != null) {
                             weightedSum += rating * neighbour.getScore();
                             similaritySum += neighbour.getScore();
@@ -101,16 +296,14 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
                             .build();
                 })
                 .filter(Objects::nonNull)
-                .sorted(Comparator.comparing(RecommendedEventProto::getScore).reversed())
-                .limit(limit) // Финальное ограничение результата
+                .sorted(Comparator.comparing(RecommendedEventProto::getScore).reversed()
+                        .thenComparing(RecommendedEventProto::getEventId))
+                .limit(limit)
                 .collect(Collectors.toList());
-
-        log.info("Сформировано {} рекомендаций для userId={}", finalRecommendations.size(), userId);
-        return finalRecommendations;
     }
 
     @Override
-    public List<RecommendedEventProto> getSimilarEvents(SimilarEventsRequestProto request) {
+    public Iterator<RecommendedEventProto> getSimilarEvents(SimilarEventsRequestProto request) {
         Long eventId = request.getEventId();
 
         Long userId = request.getUserId();
@@ -118,17 +311,32 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
         int limit = (int) request.getMaxResult();
         log.info("Запрос похожих событий для eventId={}, исключая для userId={}, limit={}", eventId, userId, limit);
 
-        Set<Long> seenEventIds = userActionRepository.findEventIdsByUserId(userId);
-        seenEventIds.add(eventId);
+        if (limit <= 0) {
+            return Collections.emptyIterator();
+        }
 
-        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "score"));
+        return LazyIterator.of(() -> {
+            Set<Long> seenEventIds = inReadOnlyTransaction(() -> userActionRepository.findEventIdsByUserId(userId));
+            seenEventIds.add(eventId);
+
+            // -- похожие события читаются страницами по мере того, как клиент забирает ответ
+            int pageSize = Math.min(limit, STREAM_PAGE_SIZE);
+            return new PagedIterator<>(page -> inReadOnlyTransaction(
+                    () -> loadSimilarEventsPage(eventId, seenEventIds, page, pageSize)), pageSize, limit);
+        });
+    }
+
+    private List<RecommendedEventProto> loadSimilarEventsPage(Long eventId, Set<Long> seenEventIds,
+                                                              int page, int pageSize) {
+        // -- Сортировка (score, eventId) задана в запросе
+        Pageable pageable = PageRequest.of(page, pageSize);
         List<Recommendation> similarEvents = eventSimilarityRepository.findTopSimilarExcluding(
                 eventId,
                 seenEventIds,
                 pageable
         );
 
-        log.info("Найдено {} похожих событий для eventId={}", similarEvents.size(), eventId);
+        log.debug("Загружена страница {} похожих событий для eventId={}: {} шт.", page, eventId, similarEvents.size());
         return similarEvents.stream()
                 .map(rec -> RecommendedEventProto.newBuilder()
                         .setEventId(rec.getEventId())
@@ -138,21 +346,56 @@ public class RecommendationsService implements analyzer.service.RecommendationsS
     }
 
     @Override
-    public List<RecommendedEventProto> getInteractionsCount(InteractionsCountRequestProto request) {
+    public Iterator<RecommendedEventProto> getInteractionsCount(InteractionsCountRequestProto request) {
         List<Long> eventIds = request.getEventIdList();
         if (eventIds.isEmpty()) {
-            return List.of();
+            return Collections.emptyIterator();
         }
         log.info("Запрос суммы весов взаимодействий для {} событий", eventIds.size());
 
-        Map<Long, Double> eventWeights = userActionRepository.getAggregatedWeightsForEvents(eventIds);
+        return LazyIterator.of(() -> {
+            Map<Long, Double> eventWeights =
+                    inReadOnlyTransaction(() -> userActionRepository.getAggregatedWeightsForEvents(eventIds));
 
-        return eventIds.stream()
-                .map(eventId -> RecommendedEventProto.newBuilder()
-                        .setEventId(eventId)
-                        .setScore(eventWeights.getOrDefault(eventId, 0.0).floatValue())
-                        .build())
-                .sorted(Comparator.comparing(RecommendedEventProto::getScore).reversed())
-                .collect(Collectors.toList());
+            return eventIds.stream()
+                    .map(eventId -> RecommendedEventProto.newBuilder()
+                            .setEventId(eventId)
+                            .setScore(eventWeights.getOrDefault(eventId, 0.0).floatValue())
+                            .build())
+                    .sorted(Comparator.comparing(RecommendedEventProto::getScore).reversed())
+                    .iterator();
+        });
+    }
+
+    // -- Действия одного пользователя, подготовленные для пакетного расчёта
+    @Getter
+    private static class UserProfile {
+        // -- все события пользователя с весами (вес может отсутствовать)
+        private final Map<Long, Double> weights = new HashMap<>();
+        private final List<Long> recentEventIds;
+
+        UserProfile(List<UserAction> actions, int limit) {
+            actions.forEach(action -> weights.put(action.getEventId(), action.getActionWeight()));
+            this.recentEventIds = actions.stream()
+                    .sorted(Comparator.comparing(UserAction::getTimestamp).reversed())
+                    .limit(limit)
+                    .map(UserAction::getEventId)
+                    .toList();
+        }
+    }
+
+    private <T> T inReadOnlyTransaction(Supplier<T> action) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> action.get());
+    }
+
+    // -- Клиент отменил вызов или истёк его дедлайн: дальнейшие запросы к БД не нужны.
+    private boolean isCallCancelled(Long userId) {
+        if (Context.current().isCancelled()) {
+            log.info("Расчёт рекомендаций для userId={} прерван: вызов отменён клиентом", userId);
+            return true;
+        }
+        return false;
     }
 }
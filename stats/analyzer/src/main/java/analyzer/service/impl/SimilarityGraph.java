@@ -0,0 +1,68 @@
+package analyzer.service.impl;
+
+import analyzer.model.NeighbourResult;
+import analyzer.model.Recommendation;
+import analyzer.repository.EventSimilarityRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Списки соседей событий, общие для всего пакетного расчёта рекомендаций.
+ * Соседи каждого события загружаются из БД один раз и дальше переиспользуются для всех пользователей.
+ * Для события хранятся только maxNeighbours лучших соседей, поэтому размер графа ограничен
+ * числом событий, а не числом пар сходства.
+ * Загрузка выполняется в одном потоке, чтение — из параллельных задач после неё.
+ */
+class SimilarityGraph {
+    // -- Ограничение на размер IN-списка в одном запросе
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    private static final Comparator<Recommendation> BY_SCORE_DESC =
+            Comparator.comparing(Recommendation::getScore).reversed();
+
+    private final EventSimilarityRepository eventSimilarityRepository;
+    private final int maxNeighbours;
+    private final Map<Long, List<Recommendation>> neighbours = new HashMap<>();
+
+    SimilarityGraph(EventSimilarityRepository eventSimilarityRepository, int maxNeighbours) {
+        this.eventSimilarityRepository = eventSimilarityRepository;
+        this.maxNeighbours = maxNeighbours;
+    }
+
+    // -- Догружает соседей для событий, которых ещё нет в графе
+    void load(Collection<Long> eventIds) {
+        List<Long> missing = eventIds.stream()
+                .filter(eventId -> !neighbours.containsKey(eventId))
+                .distinct()
+                .toList();
+
+        for (int from = 0; from < missing.size(); from += LOAD_CHUNK_SIZE) {
+            Set<Long> chunk = new HashSet<>(missing.subList(from, Math.min(from + LOAD_CHUNK_SIZE, missing.size())));
+            Map<Long, List<Recommendation>> loaded = new HashMap<>();
+            chunk.forEach(eventId -> loaded.put(eventId, new ArrayList<>()));
+
+            for (NeighbourResult neighbour : eventSimilarityRepository.findTopNeighbours(chunk, maxNeighbours)) {
+                loaded.get(neighbour.getPrimaryId())
+                        .add(new Recommendation(neighbour.getNeighbourId(), neighbour.getScore()));
+            }
+
+            loaded.values().forEach(list -> list.sort(BY_SCORE_DESC));
+            neighbours.putAll(loaded);
+        }
+    }
+
+    // -- Соседи события, отсортированные по убыванию сходства
+    List<Recommendation> neighboursOf(Long eventId) {
+        return neighbours.getOrDefault(eventId, List.of());
+    }
+
+    int size() {
+        return neighbours.size();
+    }
+}
@@ -0,0 +1,39 @@
+package analyzer.stream;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * Итератор, который откладывает построение источника до первого обращения.
+ * Позволяет не выполнять запросы к БД, пока клиент gRPC не готов принимать данные.
+ */
+public class LazyIterator<T> implements Iterator<T> {
+    private Supplier<? extends Iterator<T>> supplier;
+    private Iterator<T> delegate;
+
+    private LazyIterator(Supplier<? extends Iterator<T>> supplier) {
+        this.supplier = supplier;
+    }
+
+    public static <T> Iterator<T> of(Supplier<? extends Iterator<T>> supplier) {
+        return new LazyIterator<>(supplier);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return delegate().hasNext();
+    }
+
+    @Override
+    public T next() {
+        return delegate().next();
+    }
+
+    private Iterator<T> delegate() {
+        if (delegate == null) {
+            delegate = supplier.get();
+            supplier = null;
+        }
+        return delegate;
+    }
+}
@@ -0,0 +1,54 @@
+package analyzer.stream;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Итератор, подгружающий данные постранично по мере чтения.
+ * Следующая страница запрашивается только после того, как предыдущая полностью отдана потребителю,
+ * поэтому в памяти одновременно находится не больше одной страницы.
+ */
+public class PagedIterator<T> implements Iterator<T> {
+    private final IntFunction<List<T>> pageLoader;
+    private final int pageSize;
+    private long remaining;
+    private int nextPage;
+    private boolean exhausted;
+    private Iterator<T> current = Collections.emptyIterator();
+
+    /**
+     * @param pageLoader загружает страницу по её номеру (начиная с 0)
+     * @param pageSize   размер страницы, который использует {@code pageLoader}
+     * @param maxItems   общее ограничение на количество элементов
+     */
+    public PagedIterator(IntFunction<List<T>> pageLoader, int pageSize, long maxItems) {
+        this.pageLoader = pageLoader;
+        this.pageSize = pageSize;
+        this.remaining = maxItems;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (remaining <= 0) {
+            return false;
+        }
+        while (!current.hasNext() && !exhausted) {
+            List<T> page = pageLoader.apply(nextPage++);
+            exhausted = page.size() < pageSize;
+            current = page.iterator();
+        }
+        return current.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        remaining--;
+        return current.next();
+    }
+}
@@ -0,0 +1,45 @@
+package analyzer.ann;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// -- Компилируется только в профиле simd (src/simd/java) и загружается через рефлексию
+// -- при подключённом модуле jdk.incubator.vector (см. EmbeddingScorer#create)
+class SimdEmbeddingScorer extends EmbeddingScorer {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void dot(float[] query, float[] block, int dimension, int count, float[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = dot(query, 0, block, i * dimension, dimension);
+        }
+    }
+
+    @Override
+    protected float selfDot(float[] vector, int offset, int dimension) {
+        return dot(vector, offset, vector, offset, dimension);
+    }
+
+    private static float dot(float[] a, int aOffset, float[] b, int bOffset, int dimension) {
+        FloatVector acc = FloatVector.zero(SPECIES);
+        int upperBound = SPECIES.loopBound(dimension);
+        int j = 0;
+        for (; j < upperBound; j += SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + j);
+            FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + j);
+            acc = va.fma(vb, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        // -- хвост, не кратный ширине вектора
+        for (; j < dimension; j++) {
+            sum += a[aOffset + j] * b[bOffset + j];
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return "simd-" + SPECIES.length() + "x32";
+    }
+}
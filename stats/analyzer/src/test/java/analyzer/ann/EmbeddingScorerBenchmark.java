@@ -0,0 +1,76 @@
+package analyzer.ann;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение скалярного скоринга и скоринга на Vector API (профили simd и jmh, см. pom.xml).
+ * Размерность — ранг эмбеддингов (analyzer.ann.rank, по умолчанию 32) и больше; блок — число кандидатов
+ * векторного ранжирования на один запрос.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class EmbeddingScorerBenchmark {
+    @Param({"scalar", "simd"})
+    String scorer;
+
+    @Param({"32", "64", "128"})
+    int dimension;
+
+    @Param({"100", "1000", "10000"})
+    int count;
+
+    EmbeddingScorer embeddingScorer;
+    float[] query;
+    float[] block;
+    float[] out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        embeddingScorer = "simd".equals(scorer)
+                ? EmbeddingScorer.simd().orElseThrow(() ->
+                        new IllegalStateException("Реализация на Vector API не собрана: запустите с профилем simd"))
+                : EmbeddingScorer.scalar();
+
+        Random random = new Random(42);
+        query = new float[dimension];
+        block = new float[dimension * count];
+        out = new float[count];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = random.nextFloat() - 0.5f;
+        }
+        for (int i = 0; i < block.length; i++) {
+            block[i] = random.nextFloat() - 0.5f;
+        }
+    }
+
+    @Benchmark
+    public void dot(Blackhole blackhole) {
+        embeddingScorer.dot(query, block, dimension, count, out);
+        blackhole.consume(out);
+    }
+
+    @Benchmark
+    public void cosine(Blackhole blackhole) {
+        embeddingScorer.cosine(query, block, dimension, count, out);
+        blackhole.consume(out);
+    }
+}
@@ -0,0 +1,334 @@
+package analyzer.controller;
+
+import analyzer.config.GrpcExecutorProperties;
+import analyzer.service.impl.RecommendationsService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.grpc.ewm.dashboard.analyzer.RecommendationsControllerGrpc;
+import ru.practicum.grpc.ewm.dashboard.message.InteractionsCountRequestProto;
+import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Нагрузка на потоковые вызовы analyzer: 1000 одновременных потоков ответа, источник которых блокируется
+ * на каждом элементе, как при чтении из БД. Сравниваются стандартный пул gRPC (PLATFORM) и виртуальные потоки
+ * (VIRTUAL) без лимита и с {@link DbConcurrencyLimitInterceptor}; p99 и пиковое число платформенных потоков
+ * выводятся в лог теста.
+ */
+class GrpcExecutorLoadTest {
+    private static final int STREAMS = 1000;
+    private static final int ELEMENTS_PER_STREAM = 10;
+    private static final Duration DB_LATENCY = Duration.ofMillis(5);
+
+    final List<Server> servers = new ArrayList<>();
+    final List<ManagedChannel> channels = new ArrayList<>();
+    final List<ExecutorService> executors = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        channels.forEach(ManagedChannel::shutdownNow);
+        servers.forEach(Server::shutdownNow);
+        executors.forEach(ExecutorService::close);
+    }
+
+    @Test
+    void virtualThreadsServeThousandStreamsWithFewPlatformThreads() throws Exception {
+        AtomicInteger concurrentReads = new AtomicInteger();
+        AtomicInteger maxConcurrentReads = new AtomicInteger();
+        Function<Integer, Iterator<RecommendedEventProto>> source =
+                streamId -> new BlockingSource(ELEMENTS_PER_STREAM, concurrentReads, maxConcurrentReads);
+
+        LoadResult platform = runLoad("PLATFORM", start(false, 0, Duration.ZERO, source));
+        LoadResult virtual = runLoad("VIRTUAL", start(true, 0, Duration.ZERO, source));
+
+        maxConcurrentReads.set(0);
+        int limit = 100;
+        LoadResult limited = runLoad("VIRTUAL, max-concurrent-calls=" + limit,
+                start(true, limit, Duration.ofSeconds(30), source));
+
+        assertThat(platform.failed()).isZero();
+        assertThat(virtual.failed()).isZero();
+        assertThat(limited.failed()).isZero();
+        // -- Блокирующий источник на стандартном пуле занимает по платформенному потоку на поток ответа
+        assertThat(virtual.peakThreads()).isLessThan(platform.peakThreads());
+        // -- Лимит действует и на дочитывание источника в onReady, а не только на вызов метода сервиса
+        assertThat(maxConcurrentReads.get()).isLessThanOrEqualTo(limit);
+    }
+
+    @Test
+    void streamWaitingForPermitIsFinishedByHandler() throws Exception {
+        CountDownLatch holderReading = new CountDownLatch(1);
+        CountDownLatch releaseHolder = new CountDownLatch(1);
+        AtomicInteger waiterReads = new AtomicInteger();
+        // -- Поток 1 отдаёт элементы по запросу клиента, поток 2 держит единственный слот, пока его не отпустят
+        Function<Integer, Iterator<RecommendedEventProto>> source = streamId -> streamId == 1
+                ? new CountingSource(ELEMENTS_PER_STREAM, waiterReads)
+                : new HoldingSource(holderReading, releaseHolder);
+        RecommendationsControllerGrpc.RecommendationsControllerStub stub =
+                start(true, 1, Duration.ofMillis(200), source);
+
+        CompletableFuture<RecommendedEventProto> firstElement = new CompletableFuture<>();
+        CompletableFuture<Status> waiterStatus = new CompletableFuture<>();
+        List<ClientCallStreamObserver<InteractionsCountRequestProto>> waiterCall = new ArrayList<>();
+        stub.getInteractionsCount(request(1), new ClientResponseObserver<InteractionsCountRequestProto, RecommendedEventProto>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<InteractionsCountRequestProto> requestStream) {
+                requestStream.disableAutoRequestWithInitial(1);
+                waiterCall.add(requestStream);
+            }
+
+            @Override
+            public void onNext(RecommendedEventProto value) {
+                firstElement.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                waiterStatus.complete(Status.fromThrowable(t));
+            }
+
+            @Override
+            public void onCompleted() {
+                waiterStatus.complete(Status.OK);
+            }
+        });
+        firstElement.get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Status> holderStatus = call(stub, 2);
+        assertThat(holderReading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // -- Клиент готов принять следующий элемент, но слот занят: ответ должен завершиться сам
+        waiterCall.get(0).request(ELEMENTS_PER_STREAM);
+        assertThat(waiterStatus.get(5, TimeUnit.SECONDS).getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+        assertThat(waiterReads.get()).isEqualTo(1);
+
+        releaseHolder.countDown();
+        assertThat(holderStatus.get(5, TimeUnit.SECONDS).getCode()).isEqualTo(Status.Code.OK);
+    }
+
+    private RecommendationsControllerGrpc.RecommendationsControllerStub start(
+            boolean virtual, int maxConcurrentCalls, Duration acquireTimeout,
+            Function<Integer, Iterator<RecommendedEventProto>> source) throws Exception {
+        RecommendationsService service = mock(RecommendationsService.class);
+        when(service.getInteractionsCount(any())).thenAnswer(invocation -> {
+            InteractionsCountRequestProto request = invocation.getArgument(0);
+            return source.apply((int) request.getEventId(0));
+        });
+        RecommendationController controller = new RecommendationController(service);
+
+        String name = InProcessServerBuilder.generateName();
+        InProcessServerBuilder builder = InProcessServerBuilder.forName(name);
+        if (virtual) {
+            ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("grpc-analyzer-", 0).factory());
+            executors.add(executor);
+            GrpcExecutorProperties properties = new GrpcExecutorProperties();
+            properties.setExecutor(GrpcExecutorProperties.ExecutorMode.VIRTUAL);
+            properties.setMaxConcurrentCalls(maxConcurrentCalls);
+            properties.setAcquireTimeout(acquireTimeout);
+            builder.executor(executor)
+                    .addService(ServerInterceptors.intercept(controller, new DbConcurrencyLimitInterceptor(properties)));
+        } else {
+            builder.addService(controller);
+        }
+        servers.add(builder.build().start());
+
+        // -- Колбэки клиента выполняются на потоке транспорта, чтобы не раздувать число потоков
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        channels.add(channel);
+        return RecommendationsControllerGrpc.newStub(channel);
+    }
+
+    private LoadResult runLoad(String name, RecommendationsControllerGrpc.RecommendationsControllerStub stub)
+            throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        int threadsBefore = threads.getThreadCount();
+
+        long[] latencies = new long[STREAMS];
+        List<CompletableFuture<Status>> calls = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < STREAMS; i++) {
+            int streamId = 1_000 + i;
+            long callStartedAt = System.nanoTime();
+            calls.add(call(stub, streamId).whenComplete((status, e) ->
+                    latencies[streamId - 1_000] = System.nanoTime() - callStartedAt));
+        }
+
+        int failed = 0;
+        for (CompletableFuture<Status> call : calls) {
+            if (!call.get(2, TimeUnit.MINUTES).isOk()) {
+                failed++;
+            }
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        int peakThreads = threads.getPeakThreadCount();
+
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        double p50 = sorted[STREAMS / 2] / 1e6;
+        double p99 = sorted[(int) Math.ceil(STREAMS * 0.99) - 1] / 1e6;
+        System.out.printf("[%s] %d потоков ответа за %.2f с: p50 %.1f мс, p99 %.1f мс, " +
+                          "платформенных потоков до %d, пик %d, ошибок %d%n",
+                name, STREAMS, seconds, p50, p99, threadsBefore, peakThreads, failed);
+        return new LoadResult(peakThreads, failed);
+    }
+
+    private static CompletableFuture<Status> call(RecommendationsControllerGrpc.RecommendationsControllerStub stub,
+                                                  int streamId) {
+        CompletableFuture<Status> result = new CompletableFuture<>();
+        stub.getInteractionsCount(request(streamId), new StreamObserver<>() {
+            @Override
+            public void onNext(RecommendedEventProto value) {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.complete(Status.fromThrowable(t));
+            }
+
+            @Override
+            public void onCompleted() {
+                result.complete(Status.OK);
+            }
+        });
+        return result;
+    }
+
+    // -- Номер потока ответа передаётся первым id события, по нему выбирается источник
+    private static InteractionsCountRequestProto request(int streamId) {
+        return InteractionsCountRequestProto.newBuilder().addEventId(streamId).build();
+    }
+
+    private static RecommendedEventProto element(int i) {
+        return RecommendedEventProto.newBuilder().setEventId(i).setScore(i).build();
+    }
+
+    private static final class LoadResult {
+        private final int peakThreads;
+        private final int failed;
+
+        private LoadResult(int peakThreads, int failed) {
+            this.peakThreads = peakThreads;
+            this.failed = failed;
+        }
+
+        int peakThreads() {
+            return peakThreads;
+        }
+
+        int failed() {
+            return failed;
+        }
+    }
+
+    // -- Каждый элемент «читается из БД» с блокировкой потока; считается число одновременных чтений
+    private static final class BlockingSource implements Iterator<RecommendedEventProto> {
+        private final int size;
+        private final AtomicInteger concurrentReads;
+        private final AtomicInteger maxConcurrentReads;
+        private int next;
+
+        private BlockingSource(int size, AtomicInteger concurrentReads, AtomicInteger maxConcurrentReads) {
+            this.size = size;
+            this.concurrentReads = concurrentReads;
+            this.maxConcurrentReads = maxConcurrentReads;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public RecommendedEventProto next() {
+            maxConcurrentReads.accumulateAndGet(concurrentReads.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(DB_LATENCY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                concurrentReads.decrementAndGet();
+            }
+            return element(next++);
+        }
+    }
+
+    private static final class CountingSource implements Iterator<RecommendedEventProto> {
+        private final int size;
+        private final AtomicInteger reads;
+
+        private CountingSource(int size, AtomicInteger reads) {
+            this.size = size;
+            this.reads = reads;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return reads.get() < size;
+        }
+
+        @Override
+        public RecommendedEventProto next() {
+            return element(reads.incrementAndGet());
+        }
+    }
+
+    private static final class HoldingSource implements Iterator<RecommendedEventProto> {
+        private final CountDownLatch reading;
+        private final CountDownLatch release;
+        private boolean done;
+
+        private HoldingSource(CountDownLatch reading, CountDownLatch release) {
+            this.reading = reading;
+            this.release = release;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !done;
+        }
+
+        @Override
+        public RecommendedEventProto next() {
+            reading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            done = true;
+            return element(0);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package analyzer.service.impl;
+
+import analyzer.model.NeighbourResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Финальное ранжирование getRecommendationsForUser: {@link RankingKernel} против прежнего пути
+ * на boxed-коллекциях с полной сортировкой потока (профиль jmh, см. pom.xml).
+ * Оценки пользователя и сходства квантованы, чтобы среди кандидатов были равные оценки.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankingKernelBenchmark {
+    @Param({"1000", "10000"})
+    int candidates;
+
+    @Param({"10", "100"})
+    int k;
+
+    // -- getRecommendationsForUser берёт не больше limit соседей на кандидата
+    int neighboursPerCandidate = 20;
+    int ratedEvents = 500;
+
+    Set<Long> candidateEventIds;
+    List<NeighbourResult> neighbours;
+    List<Object[]> ratingRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        candidateEventIds = new LinkedHashSet<>();
+        while (candidateEventIds.size() < candidates) {
+            candidateEventIds.add(1_000_000L + random.nextInt(candidates * 10));
+        }
+
+        ratingRows = new ArrayList<>();
+        for (long eventId = 1; eventId <= ratedEvents; eventId++) {
+            ratingRows.add(new Object[]{eventId, (double) (1 + random.nextInt(5))});
+        }
+
+        neighbours = new ArrayList<>();
+        for (Long candidateId : candidateEventIds) {
+            for (int n = 0; n < neighboursPerCandidate; n++) {
+                long neighbourId = 1 + random.nextInt(ratedEvents);
+                double score = (1 + random.nextInt(10)) / 10.0;
+                neighbours.add(new Neighbour(candidateId, neighbourId, score));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<RecommendedEventProto> kernel() {
+        return RankingKernel.rank(candidateEventIds, neighbours, ratingRows, k);
+    }
+
+    @Benchmark
+    public List<RecommendedEventProto> streamSort() {
+        Map<Long, List<NeighbourResult>> byCandidate = neighbours.stream()
+                .collect(Collectors.groupingBy(NeighbourResult::getPrimaryId));
+        Map<Long, Double> ratings = new HashMap<>();
+        for (Object[] row : ratingRows) {
+            if (row[1] != null) {
+                ratings.put((Long) row[0], (Double) row[1]);
+            }
+        }
+
+        return candidateEventIds.stream()
+                .map(candidateId -> {
+                    double weightedSum = 0.0;
+                    double similaritySum = 0.0;
+                    for (NeighbourResult neighbour : byCandidate.getOrDefault(candidateId, List.of())) {
+                        Double rating = ratings.get(neighbour.getNeighbourId());
+                        if (rating != null) {
+                            weightedSum += rating * neighbour.getScore();
+                            similaritySum += neighbour.getScore();
+                        }
+                    }
+                    if (similaritySum == 0) return null;
+                    return RecommendedEventProto.newBuilder()
+                            .setEventId(candidateId)
+                            .setScore((float) (weightedSum / similaritySum))
+                            .build();
+                })
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(RecommendedEventProto::getScore).reversed()
+                        .thenComparing(RecommendedEventProto::getEventId))
+                .limit(k)
+                .toList();
+    }
+
+    private static final class Neighbour implements NeighbourResult {
+        private final Long primaryId;
+        private final Long neighbourId;
+        private final Double score;
+
+        private Neighbour(Long primaryId, Long neighbourId, Double score) {
+            this.primaryId = primaryId;
+            this.neighbourId = neighbourId;
+            this.score = score;
+        }
+
+        @Override
+        public Long getPrimaryId() {
+            return primaryId;
+        }
+
+        @Override
+        public Long getNeighbourId() {
+            return neighbourId;
+        }
+
+        @Override
+        public Double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package analyzer.service.impl;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link RankingKernel} отбирает тех же кандидатов и в том же порядке, что и полная сортировка
+ * по убыванию оценки с разрешением равенства по возрастанию id. Данные — из {@link RankingKernelBenchmark},
+ * где равных оценок много.
+ */
+class RankingKernelTest {
+
+    @ParameterizedTest
+    @CsvSource({"1000, 10", "1000, 100", "10000, 100", "10000, 20000"})
+    void topKMatchesFullSortWithIdTieBreak(int candidates, int k) {
+        RankingKernelBenchmark data = new RankingKernelBenchmark();
+        data.candidates = candidates;
+        data.k = k;
+        data.setUp();
+
+        assertThat(data.kernel()).containsExactlyElementsOf(data.streamSort());
+    }
+}
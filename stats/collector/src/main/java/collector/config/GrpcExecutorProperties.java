@@ -0,0 +1,21 @@
+package collector.config;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "collector.grpc")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GrpcExecutorProperties {
+    // -- PLATFORM — стандартный кэшируемый пул gRPC, VIRTUAL — каждый вызов на отдельном виртуальном потоке
+    ExecutorMode executor = ExecutorMode.PLATFORM;
+
+    public enum ExecutorMode {
+        PLATFORM,
+        VIRTUAL
+    }
+}
@@ -13,6 +13,7 @@ import collector.mapper.ProtobufToAvroMapper;
 import net.devh.boot.grpc.server.service.GrpcService;
 import ru.practicum.ewm.stats.avro.UserActionAvro;
 import ru.practicum.grpc.ewm.stats.collector.UserActionControllerGrpc;
+import ru.practicum.grpc.ewm.stats.message.UserActionBatchProto;
 import ru.practicum.grpc.ewm.stats.message.UserActionProto;
 
 @GrpcService
@@ -39,4 +40,22 @@ public class UserActionGrpcController extends UserActionControllerGrpc.UserActio
                     .withCause(e)));
         }
     }
+
+    // -- Пакет действий (просмотры от event-service): отправка в Kafka асинхронная, ответ не ждёт подтверждений
+    @Override
+    public void collectUserActions(UserActionBatchProto request, StreamObserver<Empty> responseObserver) {
+        log.debug("Получен пакет gRPC сообщений: {} действий", request.getActionsCount());
+
+        try {
+            request.getActionsList().stream()
+                    .map(protobufToAvroMapper::toAvro)
+                    .forEach(userActionProducer::sendUserAction);
+
+            responseObserver.onNext(Empty.getDefaultInstance());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(new StatusRuntimeException(Status.INTERNAL.withDescription(e.getMessage())
+                    .withCause(e)));
+        }
+    }
 }
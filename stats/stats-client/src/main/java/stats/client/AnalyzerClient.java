@@ -3,17 +3,22 @@ package stats.client;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import ru.practicum.grpc.ewm.dashboard.analyzer.RecommendationsControllerGrpc;
+import ru.practicum.grpc.ewm.dashboard.message.BatchUserPredictionsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.InteractionsCountRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.RecommendedEventProto;
 import ru.practicum.grpc.ewm.dashboard.message.SimilarEventsRequestProto;
 import ru.practicum.grpc.ewm.dashboard.message.UserPredictionsRequestProto;
+import ru.practicum.grpc.ewm.dashboard.message.UserRecommendationsProto;
 
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -24,6 +29,10 @@ public class AnalyzerClient {
     @GrpcClient("analyzer")
     RecommendationsControllerGrpc.RecommendationsControllerBlockingStub controllerBlockingStub;
 
+    // -- Суммы взаимодействий запрашиваются фоновыми заданиями: зависший analyzer не должен блокировать их поток
+    @Value("${stats-client.analyzer.interactions-deadline:10s}")
+    Duration interactionsDeadline;
+
     public Stream<RecommendedEventProto> getRecommendationsForUser(Long userId, Long maxResults) {
         final UserPredictionsRequestProto request = UserPredictionsRequestProto.newBuilder()
                 .setUserId(userId)
@@ -33,6 +42,15 @@ public class AnalyzerClient {
         return asStream(iterator);
     }
 
+    public Stream<UserRecommendationsProto> getRecommendationsForUsers(List<Long> userIds, Long maxResults) {
+        final BatchUserPredictionsRequestProto request = BatchUserPredictionsRequestProto.newBuilder()
+                .addAllUserId(userIds)
+                .setMaxResult(maxResults)
+                .build();
+        final Iterator<UserRecommendationsProto> iterator = controllerBlockingStub.getRecommendationsForUsers(request);
+        return asStream(iterator);
+    }
+
     public Stream<RecommendedEventProto> getSimilarEvents(Long eventId, Long userId, Long maxResults) {
         final SimilarEventsRequestProto request = SimilarEventsRequestProto.newBuilder()
                 .setEventId(eventId)
@@ -47,11 +65,13 @@ public class AnalyzerClient {
         final InteractionsCountRequestProto request = InteractionsCountRequestProto.newBuilder()
                 .addAllEventId(eventIds)
                 .build();
-        final Iterator<RecommendedEventProto> iterator = controllerBlockingStub.getInteractionsCount(request);
+        final Iterator<RecommendedEventProto> iterator = controllerBlockingStub
+                .withDeadlineAfter(interactionsDeadline.toMillis(), TimeUnit.MILLISECONDS)
+                .getInteractionsCount(request);
         return asStream(iterator);
     }
 
-    private Stream<RecommendedEventProto> asStream(Iterator<RecommendedEventProto> iterator) {
+    private <T> Stream<T> asStream(Iterator<T> iterator) {
         return StreamSupport.stream(
                 Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
                 false
@@ -4,12 +4,17 @@ import com.google.protobuf.Timestamp;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import ru.practicum.grpc.ewm.stats.collector.UserActionControllerGrpc;
 import ru.practicum.grpc.ewm.stats.message.ActionTypeProto;
+import ru.practicum.grpc.ewm.stats.message.UserActionBatchProto;
 import ru.practicum.grpc.ewm.stats.message.UserActionProto;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -18,14 +23,29 @@ public class CollectorClient {
     @GrpcClient("collector")
     UserActionControllerGrpc.UserActionControllerBlockingStub controllerBlockingStub;
 
+    // -- Пакет отправляется из фонового сброса: зависший collector не должен блокировать его бесконечно
+    @Value("${stats-client.collector.batch-deadline:5s}")
+    Duration batchDeadline;
+
     public void collectUserAction(Long userId, Long eventId, String actionType, Instant timestamp) {
-        UserActionProto request = UserActionProto.newBuilder()
+        controllerBlockingStub.collectUserAction(buildUserAction(userId, eventId, actionType, timestamp));
+    }
+
+    public void collectUserActions(List<UserActionProto> actions) {
+        UserActionBatchProto request = UserActionBatchProto.newBuilder()
+                .addAllActions(actions)
+                .build();
+        controllerBlockingStub.withDeadlineAfter(batchDeadline.toMillis(), TimeUnit.MILLISECONDS)
+                .collectUserActions(request);
+    }
+
+    public UserActionProto buildUserAction(Long userId, Long eventId, String actionType, Instant timestamp) {
+        return UserActionProto.newBuilder()
                 .setUserId(userId)
                 .setEventId(eventId)
                 .setActionType(ActionTypeProto.valueOf(actionType))
                 .setTimestamp(buildTimestamp(timestamp))
                 .build();
-        controllerBlockingStub.collectUserAction(request);
     }
 
     private Timestamp buildTimestamp(Instant instant) {